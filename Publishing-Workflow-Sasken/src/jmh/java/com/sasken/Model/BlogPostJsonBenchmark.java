@@ -0,0 +1,85 @@
+package com.sasken.Model;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Serializing the post lists returned by /api/posts. Bodies are inflated
+ * on the first run and then cached, as they are for posts served from the
+ * post cache.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class BlogPostJsonBenchmark {
+
+    // One post, a default page and the largest page the API returns
+    @Param({"1", "50", "200"})
+    int size;
+
+    private ObjectMapper objectMapper;
+    private List<BlogPost> posts;
+
+    @Setup
+    public void setUp() {
+        // Configured like the application's mapper: ISO-8601 dates
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        StringBuilder content = new StringBuilder();
+        StringBuilder richContent = new StringBuilder();
+        for (int i = 0; i < 12; i++) {
+            String paragraph = "Paragraph " + i + " of a typical post, long enough to look like real prose and "
+                    + "to give the serializer escaping work: \"quotes\", tabs\tand unicode like café. ";
+            content.append(paragraph).append(paragraph).append('\n');
+            richContent.append("<p class=\"body\">").append(paragraph).append(paragraph).append("</p>\n");
+        }
+
+        posts = new ArrayList<>(size);
+        LocalDateTime now = LocalDateTime.of(2025, 1, 1, 12, 0);
+        for (int i = 0; i < size; i++) {
+            BlogPost post = BlogPost.builder()
+                    .id((long) i)
+                    .title("Benchmark post " + i)
+                    .status(PostStatus.values()[i % PostStatus.values().length])
+                    .createdAt(now.minusDays(i))
+                    .updatedAt(now.minusHours(i))
+                    .authorId(i % 20L)
+                    .authorName("Author " + i % 20)
+                    .version((long) i % 5)
+                    .commentCount((long) i % 7)
+                    .build();
+            post.setContent(content.toString());
+            post.setRichContent(richContent.toString());
+            posts.add(post);
+        }
+    }
+
+    @Benchmark
+    public byte[] serializePosts() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(posts);
+    }
+}
@@ -0,0 +1,38 @@
+package com.sasken.Service;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.sasken.Model.PostStatus;
+
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class BlogPostServiceBenchmark {
+
+    // Read from a field so the JIT cannot fold the checks into constants
+    private PostStatus[] statuses = PostStatus.values();
+
+    /** Every (current, next) pair, valid or not. */
+    @Benchmark
+    public void isValidTransition(Blackhole blackhole) {
+        for (PostStatus current : statuses) {
+            for (PostStatus next : statuses) {
+                blackhole.consume(BlogPostService.isValidTransition(current, next));
+            }
+        }
+    }
+}
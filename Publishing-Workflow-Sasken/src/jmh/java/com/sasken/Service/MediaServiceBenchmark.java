@@ -0,0 +1,158 @@
+package com.sasken.Service;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import javax.imageio.ImageIO;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.sasken.Model.Media;
+import com.sasken.Model.MediaStatus;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Upload validation and image processing, run on a bare MediaService with
+ * no database behind it.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class MediaServiceBenchmark {
+
+    static MediaService newService(Path uploadDir) {
+        MediaService service = new MediaService();
+        ReflectionTestUtils.setField(service, "uploadDir", uploadDir.toString());
+        ReflectionTestUtils.setField(service, "maxFileSize", 10485760L);
+        ReflectionTestUtils.setField(service, "meterRegistry", new SimpleMeterRegistry());
+        service.registerMeters();
+        return service;
+    }
+
+    /**
+     * A photo-like test image: smooth gradients with sensor-style noise, so
+     * it compresses about as well as a real photo rather than a flat fill.
+     */
+    static byte[] sampleImage(String format, int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Random random = new Random(42);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int r = (x * 255 / width + random.nextInt(16)) & 0xff;
+                int g = (y * 255 / height + random.nextInt(16)) & 0xff;
+                int b = ((x + y) * 127 / (width + height) + random.nextInt(16)) & 0xff;
+                image.setRGB(x, y, (r << 16) | (g << 8) | b);
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, format, out);
+        return out.toByteArray();
+    }
+
+    static void deleteRecursively(Path dir) throws IOException {
+        try (Stream<Path> walk = Files.walk(dir)) {
+            for (Path path : walk.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Validation {
+
+        // Signatures matched on the first byte, behind a shared first byte,
+        // by the ftyp fallback, and a ZIP checked against its name
+        @Param({"jpeg", "webp", "mp4", "docx"})
+        String format;
+
+        MediaService service;
+        byte[] header;
+        String fileName;
+
+        @Setup
+        public void setUp() throws IOException {
+            service = newService(Path.of("target"));
+            byte[] content = switch (format) {
+                case "jpeg" -> sampleImage("jpeg", 64, 64);
+                case "webp" -> "RIFF\0\0\0\0WEBPVP8 ".getBytes(StandardCharsets.ISO_8859_1);
+                case "mp4" -> "\0\0\0\u0018ftypisom".getBytes(StandardCharsets.ISO_8859_1);
+                case "docx" -> "PK\u0003\u0004\u0014\0\u0006\0\b\0\0\0".getBytes(StandardCharsets.ISO_8859_1);
+                default -> throw new IllegalArgumentException(format);
+            };
+            header = Arrays.copyOf(content, MediaTypes.HEADER_LENGTH);
+            fileName = "upload." + format;
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public String validateAndClassify(Validation state) throws IOException {
+        String mimeType = state.service.sniffType(state.header, state.fileName);
+        return MediaTypes.FILE_TYPES.get(mimeType);
+    }
+
+    @State(Scope.Benchmark)
+    public static class Processing {
+
+        @Param({"jpeg:800x600", "jpeg:1920x1080", "jpeg:4032x3024", "png:800x600", "png:1920x1080"})
+        String image;
+
+        MediaService service;
+        Path uploadDir;
+        Path source;
+        Media media;
+
+        @Setup
+        public void setUp() throws IOException {
+            String[] spec = image.split("[:x]");
+            String format = spec[0];
+            uploadDir = Files.createTempDirectory("media-bench");
+            service = newService(uploadDir);
+            source = uploadDir.resolve("sample." + format);
+            Files.write(source, sampleImage(format, Integer.parseInt(spec[1]), Integer.parseInt(spec[2])));
+
+            media = Media.builder().fileName(source.getFileName().toString()).build();
+            service.processImage(media, source);
+            if (media.getStatus() == MediaStatus.FAILED) {
+                throw new IllegalStateException("Sample " + image + " could not be processed");
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            deleteRecursively(uploadDir);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Media processImage(Processing state) throws IOException {
+        state.service.processImage(state.media, state.source);
+        return state.media;
+    }
+}
@@ -0,0 +1,446 @@
+package com.sasken;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import javax.imageio.ImageIO;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.sasken.Model.PostStatus;
+
+/**
+ * End-to-end load test: boots the application on an in-memory H2 database,
+ * seeds posts and media over the REST API, then drives a fixed mix of list,
+ * get, create, update, status-change and upload requests from a pool of
+ * closed-loop clients. Reports throughput and p50/p99/p999 latency per
+ * endpoint, printed and written as JSON.
+ *
+ * Settings are system properties (see the loadtest profile in pom.xml):
+ * loadtest.posts, loadtest.media, loadtest.threads, loadtest.warmup and
+ * loadtest.duration (seconds), loadtest.seed, loadtest.result, and
+ * loadtest.virtualThreads to serve requests on virtual threads (Java 21+).
+ */
+public class LoadTestRunner {
+
+    enum Endpoint {
+        LIST("GET /api/posts/summaries", 30),
+        GET("GET /api/posts/{id}", 35),
+        CREATE("POST /api/posts", 8),
+        UPDATE("PATCH /api/posts/{id}", 10),
+        TRANSITION("PUT /api/posts/{id}/status", 12),
+        UPLOAD("POST /api/media/upload", 5);
+
+        final String label;
+        final int weight;
+
+        Endpoint(String label, int weight) {
+            this.label = label;
+            this.weight = weight;
+        }
+    }
+
+    private static final Map<PostStatus, PostStatus[]> NEXT_STATUSES = Map.of(
+            PostStatus.DRAFT, new PostStatus[] {PostStatus.REVIEW},
+            PostStatus.REVIEW, new PostStatus[] {PostStatus.APPROVED, PostStatus.DRAFT},
+            PostStatus.APPROVED, new PostStatus[] {PostStatus.PUBLISHED, PostStatus.REVIEW},
+            PostStatus.PUBLISHED, new PostStatus[0]);
+
+    private static final String BOUNDARY = "----loadtest-boundary";
+
+    private final int posts = Integer.getInteger("loadtest.posts", 1000);
+    private final int media = Integer.getInteger("loadtest.media", 100);
+    private final int threads = Integer.getInteger("loadtest.threads", 16);
+    private final int warmupSeconds = Integer.getInteger("loadtest.warmup", 10);
+    private final int durationSeconds = Integer.getInteger("loadtest.duration", 60);
+    private final long seed = Long.getLong("loadtest.seed", 42L);
+    private final boolean virtualThreads = Boolean.getBoolean("loadtest.virtualThreads");
+    private final Path result = Path.of(System.getProperty("loadtest.result", "target/loadtest-result.json"));
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    // Client-side view of the posts, used to pick ids and valid transitions
+    private final AtomicLong highestPostId = new AtomicLong();
+    private final Map<Long, PostStatus> statuses = new ConcurrentHashMap<>();
+    private final List<byte[]> images = new ArrayList<>();
+    private final int totalWeight = Arrays.stream(Endpoint.values()).mapToInt(e -> e.weight).sum();
+
+    private String baseUrl;
+
+    public static void main(String[] args) throws Exception {
+        new LoadTestRunner().run();
+    }
+
+    private void run() throws Exception {
+        Path uploadDir = Files.createTempDirectory("loadtest-uploads");
+        ConfigurableApplicationContext context = new SpringApplication(PublishingWorkflowApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:loadtest;MODE=MySQL;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.show-sql=false",
+                "--app.upload.dir=" + uploadDir,
+                "--app.snapshot.dir=" + uploadDir.resolve("snapshots"),
+                "--app.history.spill-file=" + uploadDir.resolve("status-history.spill"),
+                "--spring.threads.virtual.enabled=" + virtualThreads,
+                "--logging.level.root=WARN");
+        try {
+            int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+            baseUrl = "http://localhost:" + port;
+
+            generateImages();
+            seed();
+            System.out.printf("Seeded %d posts and %d media; warming up for %ds%n", posts, media, warmupSeconds);
+            drive(warmupSeconds);
+            System.out.printf("Measuring %d clients for %ds on %s threads%n", threads, durationSeconds,
+                    virtualThreads ? "virtual" : "platform");
+            Map<Endpoint, Samples> samples = drive(durationSeconds);
+            report(samples);
+        } finally {
+            context.close();
+            deleteRecursively(uploadDir);
+        }
+    }
+
+    // A small pool of distinct photo-like images; repeats exercise the
+    // duplicate-content path the way re-uploads do in practice.
+    private void generateImages() throws IOException {
+        Random random = new Random(seed);
+        int[][] sizes = {{640, 480}, {1280, 720}, {1920, 1080}};
+        for (int i = 0; i < 24; i++) {
+            int[] size = sizes[i % sizes.length];
+            BufferedImage image = new BufferedImage(size[0], size[1], BufferedImage.TYPE_INT_RGB);
+            int tint = random.nextInt(0xffffff);
+            for (int y = 0; y < size[1]; y++) {
+                for (int x = 0; x < size[0]; x++) {
+                    int shade = (x + y) * 255 / (size[0] + size[1]);
+                    image.setRGB(x, y, (tint ^ (shade * 0x010101)) + random.nextInt(12));
+                }
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ImageIO.write(image, "jpeg", out);
+            images.add(out.toByteArray());
+        }
+    }
+
+    private void seed() throws Exception {
+        Random random = new Random(seed);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> pending = new ArrayList<>();
+            for (int i = 0; i < posts; i++) {
+                // Spread seeded posts over every status
+                int steps = i % 4;
+                pending.add(pool.submit(() -> {
+                    long id = create(random);
+                    PostStatus status = PostStatus.DRAFT;
+                    for (int step = 0; step < steps; step++) {
+                        status = NEXT_STATUSES.get(status)[0];
+                        send(transitionRequest(id, status));
+                        statuses.put(id, status);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : pending) {
+                future.get();
+            }
+            pending.clear();
+            for (int i = 0; i < media; i++) {
+                long postId = 1 + (i * 7L) % highestPostId.get();
+                byte[] image = images.get(i % images.size());
+                pending.add(pool.submit(() -> send(uploadRequest(postId, image))));
+            }
+            for (Future<?> future : pending) {
+                future.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private Map<Endpoint, Samples> drive(int seconds) throws Exception {
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Map<Endpoint, Samples>>> workers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            Random random = new Random(seed * 31 + i);
+            workers.add(pool.submit(() -> {
+                Map<Endpoint, Samples> samples = newSamples();
+                start.await();
+                while (System.nanoTime() < deadline) {
+                    Endpoint endpoint = pick(random);
+                    long began = System.nanoTime();
+                    int code;
+                    try {
+                        code = call(endpoint, random);
+                    } catch (IOException e) {
+                        code = 0;
+                    }
+                    samples.get(endpoint).add(System.nanoTime() - began, code);
+                }
+                return samples;
+            }));
+        }
+        start.countDown();
+
+        Map<Endpoint, Samples> merged = newSamples();
+        for (Future<Map<Endpoint, Samples>> worker : workers) {
+            worker.get().forEach((endpoint, samples) -> merged.get(endpoint).addAll(samples));
+        }
+        pool.shutdown();
+        merged.values().forEach(samples -> samples.seconds = seconds);
+        return merged;
+    }
+
+    private static Map<Endpoint, Samples> newSamples() {
+        Map<Endpoint, Samples> samples = new EnumMap<>(Endpoint.class);
+        for (Endpoint endpoint : Endpoint.values()) {
+            samples.put(endpoint, new Samples());
+        }
+        return samples;
+    }
+
+    private Endpoint pick(Random random) {
+        int ticket = random.nextInt(totalWeight);
+        for (Endpoint endpoint : Endpoint.values()) {
+            ticket -= endpoint.weight;
+            if (ticket < 0) {
+                return endpoint;
+            }
+        }
+        throw new IllegalStateException();
+    }
+
+    private long randomPostId(Random random) {
+        return 1 + random.nextLong(highestPostId.get());
+    }
+
+    private int call(Endpoint endpoint, Random random) throws Exception {
+        switch (endpoint) {
+            case LIST: {
+                PostStatus status = PostStatus.values()[random.nextInt(PostStatus.values().length)];
+                return send(get("/api/posts/summaries?limit=20&status=" + status)).statusCode();
+            }
+            case GET:
+                return send(get("/api/posts/" + randomPostId(random))).statusCode();
+            case CREATE:
+                return created(send(createRequest(random)));
+            case UPDATE: {
+                String body = objectMapper.writeValueAsString(Map.of("title", "Updated title " + random.nextInt()));
+                return send(request("/api/posts/" + randomPostId(random))
+                        .header("Content-Type", "application/json")
+                        .method("PATCH", HttpRequest.BodyPublishers.ofString(body))).statusCode();
+            }
+            case TRANSITION: {
+                // Published posts have no way out, so look for one that can still move
+                long id = randomPostId(random);
+                for (int attempt = 0; attempt < 10 && isPublished(id); attempt++) {
+                    id = randomPostId(random);
+                }
+                PostStatus[] next = NEXT_STATUSES.get(statuses.getOrDefault(id, PostStatus.DRAFT));
+                PostStatus status = next.length > 0 ? next[random.nextInt(next.length)] : PostStatus.REVIEW;
+                int code = send(transitionRequest(id, status)).statusCode();
+                if (code == 200) {
+                    statuses.put(id, status);
+                }
+                return code;
+            }
+            case UPLOAD:
+                return send(uploadRequest(randomPostId(random), images.get(random.nextInt(images.size())))).statusCode();
+            default:
+                throw new IllegalStateException();
+        }
+    }
+
+    private boolean isPublished(long id) {
+        return statuses.get(id) == PostStatus.PUBLISHED;
+    }
+
+    private long create(Random random) throws Exception {
+        HttpResponse<String> response = send(createRequest(random));
+        if (created(response) != 200) {
+            throw new IllegalStateException("Create failed with " + response.statusCode());
+        }
+        return objectMapper.readTree(response.body()).get("id").asLong();
+    }
+
+    private HttpRequest.Builder createRequest(Random random) throws IOException {
+        Map<String, Object> post = new LinkedHashMap<>();
+        post.put("title", "Load test post " + random.nextInt(1_000_000));
+        post.put("content", "Body text for a load test post. ".repeat(20 + random.nextInt(60)));
+        post.put("authorId", 1 + random.nextInt(50));
+        post.put("authorName", "Load Tester");
+        return request("/api/posts")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(post)));
+    }
+
+    // Tracks a newly created post so later requests can target it
+    private int created(HttpResponse<String> response) throws IOException {
+        if (response.statusCode() == 200) {
+            long id = objectMapper.readTree(response.body()).get("id").asLong();
+            statuses.put(id, PostStatus.DRAFT);
+            highestPostId.accumulateAndGet(id, Math::max);
+        }
+        return response.statusCode();
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(30));
+    }
+
+    private HttpRequest.Builder get(String path) {
+        return request(path).GET();
+    }
+
+    private HttpRequest.Builder transitionRequest(long id, PostStatus status) {
+        return request("/api/posts/" + id + "/status?status=" + status + "&userId=1")
+                .PUT(HttpRequest.BodyPublishers.noBody());
+    }
+
+    private HttpRequest.Builder uploadRequest(long postId, byte[] image) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream(image.length + 256);
+        body.write(("--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"photo.jpg\"\r\n"
+                + "Content-Type: image/jpeg\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+        body.write(image);
+        body.write(("\r\n--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.US_ASCII));
+        return request("/api/media/upload?blogPostId=" + postId)
+                .header("Content-Type", "multipart/form-data; boundary=" + BOUNDARY)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray()));
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private void report(Map<Endpoint, Samples> samples) throws IOException {
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        Samples total = new Samples();
+        System.out.printf("%n%-28s %9s %9s %9s %9s %9s %9s %7s%n",
+                "Endpoint", "Requests", "Req/s", "p50 ms", "p99 ms", "p999 ms", "Max ms", "Errors");
+        for (Endpoint endpoint : Endpoint.values()) {
+            Samples endpointSamples = samples.get(endpoint);
+            total.addAll(endpointSamples);
+            total.seconds = endpointSamples.seconds;
+            endpoints.put(endpoint.label, print(endpoint.label, endpointSamples));
+        }
+        Map<String, Object> summary = print("All", total);
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("posts", posts);
+        report.put("media", media);
+        report.put("threads", threads);
+        report.put("durationSeconds", durationSeconds);
+        report.put("seed", seed);
+        report.put("virtualThreads", virtualThreads);
+        report.put("javaVersion", System.getProperty("java.version"));
+        report.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+        report.put("total", summary);
+        report.put("endpoints", endpoints);
+        Files.createDirectories(result.toAbsolutePath().getParent());
+        objectMapper.enable(SerializationFeature.INDENT_OUTPUT).writeValue(result.toFile(), report);
+        System.out.println("\nResults written to " + result.toAbsolutePath());
+    }
+
+    private static Map<String, Object> print(String label, Samples samples) {
+        Map<String, Object> stats = samples.summarize();
+        System.out.printf("%-28s %9d %9.1f %9.2f %9.2f %9.2f %9.2f %7d%n", label,
+                stats.get("requests"), stats.get("throughput"), stats.get("p50Ms"), stats.get("p99Ms"),
+                stats.get("p999Ms"), stats.get("maxMs"), stats.get("errors"));
+        return stats;
+    }
+
+    private static void deleteRecursively(Path dir) throws IOException {
+        try (Stream<Path> walk = Files.walk(dir)) {
+            for (Path path : walk.sorted((a, b) -> b.compareTo(a)).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    /** Latencies of one endpoint, kept whole so percentiles are exact. */
+    static final class Samples {
+        private long[] nanos = new long[1024];
+        private int count;
+        private long errors;
+        int seconds;
+
+        void add(long latency, int statusCode) {
+            if (count == nanos.length) {
+                nanos = Arrays.copyOf(nanos, count * 2);
+            }
+            nanos[count++] = latency;
+            // 0 marks a request that failed without a response
+            if (statusCode == 0 || statusCode >= 400) {
+                errors++;
+            }
+        }
+
+        void addAll(Samples other) {
+            if (count + other.count > nanos.length) {
+                nanos = Arrays.copyOf(nanos, Math.max(nanos.length * 2, count + other.count));
+            }
+            System.arraycopy(other.nanos, 0, nanos, count, other.count);
+            count += other.count;
+            errors += other.errors;
+        }
+
+        Map<String, Object> summarize() {
+            long[] sorted = Arrays.copyOf(nanos, count);
+            Arrays.sort(sorted);
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("requests", (long) count);
+            stats.put("throughput", seconds > 0 ? (double) count / seconds : 0.0);
+            stats.put("p50Ms", percentile(sorted, 0.50));
+            stats.put("p99Ms", percentile(sorted, 0.99));
+            stats.put("p999Ms", percentile(sorted, 0.999));
+            stats.put("maxMs", count > 0 ? sorted[count - 1] / 1e6 : 0.0);
+            stats.put("errors", errors);
+            return stats;
+        }
+
+        // Nearest-rank percentile
+        private static double percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0.0;
+            }
+            int rank = (int) Math.ceil(quantile * sorted.length);
+            return sorted[Math.max(0, rank - 1)] / 1e6;
+        }
+    }
+}
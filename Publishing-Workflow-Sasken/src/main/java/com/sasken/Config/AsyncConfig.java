@@ -0,0 +1,67 @@
+package com.sasken.Config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class AsyncConfig {
+
+    @Autowired
+    private Environment environment;
+
+    /**
+     * Worker pool for thumbnail generation and metadata extraction. The queue
+     * is bounded so uploads are refused once processing falls behind instead
+     * of piling up work in memory; rows left in PROCESSING by a shutdown are
+     * picked up again by MediaService on the next start. With virtual threads
+     * enabled the workers are virtual, so file I/O does not hold a carrier,
+     * but the pool still caps how many images are decoded at once.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor mediaProcessingExecutor(
+            @Value("${app.media.processing.threads:2}") int threads,
+            @Value("${app.media.processing.queue-capacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("media-proc-");
+        useVirtualThreads(executor, "media-proc-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    /**
+     * Writes queued server-sent events to subscribers. Each subscriber has at
+     * most one drain task queued at a time, so a few threads serve any
+     * number of open streams.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor eventDispatchExecutor(
+            @Value("${app.events.dispatch-threads:2}") int threads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setThreadNamePrefix("sse-dispatch-");
+        useVirtualThreads(executor, "sse-dispatch-");
+        return executor;
+    }
+
+    /**
+     * Runs the pool's workers on virtual threads when spring.threads.virtual.enabled
+     * is set on Java 21+, the same switch that moves Tomcat request handling and
+     * the scheduler onto them. The pool size, queue and metrics stay as they are.
+     */
+    private void useVirtualThreads(ThreadPoolTaskExecutor executor, String threadNamePrefix) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            executor.setThreadFactory(new VirtualThreadTaskExecutor(threadNamePrefix).getVirtualThreadFactory());
+        }
+    }
+}
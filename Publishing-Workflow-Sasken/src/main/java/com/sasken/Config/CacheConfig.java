@@ -0,0 +1,40 @@
+package com.sasken.Config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sasken.Model.BlogPost;
+
+@Configuration
+public class CacheConfig {
+
+    // Covers the row's other fields and the entity's own overhead
+    private static final int ENTRY_OVERHEAD_BYTES = 1024;
+
+    /**
+     * Read-through cache in front of BlogPostService.getPost. Bounded by the
+     * approximate heap its posts hold, since bodies have no length cap, with
+     * Caffeine's W-TinyLFU eviction; writes through BlogPostService invalidate
+     * entries, and the TTL only bounds staleness from writes made elsewhere.
+     * Entries are futures so a miss is loaded outside the cache's internal
+     * lock, where a blocking query would pin a virtual thread.
+     */
+    @Bean
+    public AsyncCache<Long, BlogPost> blogPostCache(
+            @Value("${app.cache.posts.max-weight:64MB}") DataSize maxWeight,
+            @Value("${app.cache.posts.ttl:10m}") Duration ttl) {
+        return Caffeine.newBuilder()
+                .maximumWeight(maxWeight.toBytes())
+                .weigher((Long postId, BlogPost post) ->
+                        (int) Math.min(Integer.MAX_VALUE, ENTRY_OVERHEAD_BYTES + post.bodyFootprint()))
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+    }
+}
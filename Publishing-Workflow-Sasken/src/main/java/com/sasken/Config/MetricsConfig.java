@@ -0,0 +1,47 @@
+package com.sasken.Config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+
+@Configuration
+public class MetricsConfig {
+
+    /** Prefix of the application's own meters. */
+    public static final String PREFIX = "blogcraft.";
+
+    /** Bytes written to the upload directory, tagged by kind of file. */
+    public static final String MEDIA_BYTES_WRITTEN = PREFIX + "media.bytes.written";
+
+    /** Times every public method of classes annotated with @Timed. */
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+
+    /**
+     * Gives every blogcraft timer p50/p95/p99 and a percentile histogram,
+     * so tail latency is visible and not just the mean and max.
+     */
+    @Bean
+    public MeterFilter blogcraftTimerPercentiles() {
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                if (id.getType() != Meter.Type.TIMER || !id.getName().startsWith(PREFIX)) {
+                    return config;
+                }
+                return DistributionStatisticConfig.builder()
+                        .percentiles(0.5, 0.95, 0.99)
+                        .percentilesHistogram(true)
+                        .build()
+                        .merge(config);
+            }
+        };
+    }
+}
@@ -1,8 +1,13 @@
 package com.sasken.Controller;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -10,10 +15,22 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.sasken.Config.MetricsConfig;
 import com.sasken.Model.BlogPost;
 import com.sasken.Model.PostStatus;
 import com.sasken.Repository.BlogPostRepository;
+import com.sasken.Service.BlogStatsService;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
@@ -27,9 +44,21 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 @Tag(name = "Monitoring", description = "Application monitoring and statistics endpoints")
 public class ActuatorController {
 
+    // Executor gauges Spring Boot registers for every task executor bean
+    private static final Set<String> QUEUE_GAUGES = Set.of("executor.queued", "executor.active");
+
     @Autowired
     private BlogPostRepository blogPostRepository;
 
+    @Autowired
+    private BlogStatsService statsService;
+
+    @Autowired
+    private AsyncCache<Long, BlogPost> postCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @GetMapping("/stats")
     @Operation(
         summary = "Get blog statistics",
@@ -55,13 +84,11 @@ public class ActuatorController {
         Map<String, Object> stats = new HashMap<>();
         
         try {
-            List<BlogPost> allPosts = blogPostRepository.findAll();
-            
-            long totalPosts = allPosts.size();
-            long draftPosts = allPosts.stream().filter(p -> p.getStatus() == PostStatus.DRAFT).count();
-            long reviewPosts = allPosts.stream().filter(p -> p.getStatus() == PostStatus.REVIEW).count();
-            long approvedPosts = allPosts.stream().filter(p -> p.getStatus() == PostStatus.APPROVED).count();
-            long publishedPosts = allPosts.stream().filter(p -> p.getStatus() == PostStatus.PUBLISHED).count();
+            long totalPosts = statsService.getTotal();
+            long draftPosts = statsService.getCount(PostStatus.DRAFT);
+            long reviewPosts = statsService.getCount(PostStatus.REVIEW);
+            long approvedPosts = statsService.getCount(PostStatus.APPROVED);
+            long publishedPosts = statsService.getCount(PostStatus.PUBLISHED);
             
             stats.put("totalPosts", totalPosts);
             stats.put("draftPosts", draftPosts);
@@ -115,4 +142,125 @@ public class ActuatorController {
         
         return ResponseEntity.ok(health);
     }
-} 
\ No newline at end of file
+
+    @GetMapping("/cache")
+    @Operation(
+        summary = "Get post cache statistics",
+        description = "Reports hit, miss and eviction counters of the in-process blog post cache"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Cache statistics retrieved successfully",
+            content = @Content(mediaType = "application/json",
+                schema = @Schema(implementation = Map.class),
+                examples = @ExampleObject(value = """
+                    {
+                      "size": 812,
+                      "maximumSize": 10000,
+                      "hitCount": 15230,
+                      "missCount": 1204,
+                      "hitRate": 0.9267,
+                      "evictionCount": 0
+                    }
+                    """)))
+    })
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        Map<String, Object> cache = new HashMap<>();
+        Cache<Long, BlogPost> posts = postCache.synchronous();
+        CacheStats cacheStats = posts.stats();
+
+        cache.put("size", posts.estimatedSize());
+        posts.policy().eviction().ifPresent(eviction -> cache.put("maximumSize", eviction.getMaximum()));
+        cache.put("hitCount", cacheStats.hitCount());
+        cache.put("missCount", cacheStats.missCount());
+        cache.put("hitRate", cacheStats.hitRate());
+        cache.put("evictionCount", cacheStats.evictionCount());
+
+        return ResponseEntity.ok(cache);
+    }
+
+    @GetMapping("/metrics")
+    @Operation(
+        summary = "Get latency and throughput metrics",
+        description = "Reports count, mean, max and p50/p95/p99 latency of every BlogPostService and MediaService "
+            + "method and of each upload phase, along with executor queue depths, event stream buffers and "
+            + "bytes written. Max and percentiles cover the last few minutes; counts are cumulative."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Metrics retrieved successfully",
+            content = @Content(mediaType = "application/json",
+                schema = @Schema(implementation = Map.class),
+                examples = @ExampleObject(value = """
+                    {
+                      "timers": [
+                        {
+                          "name": "blogcraft.media.upload.phase",
+                          "tags": { "phase": "copy" },
+                          "count": 42,
+                          "meanMs": 3.8,
+                          "maxMs": 21.4,
+                          "p50Ms": 2.9,
+                          "p95Ms": 9.4,
+                          "p99Ms": 20.9
+                        }
+                      ],
+                      "gauges": [
+                        { "name": "executor.queued", "tags": { "name": "mediaProcessingExecutor" }, "value": 3.0 }
+                      ],
+                      "counters": [
+                        { "name": "blogcraft.media.bytes.written", "tags": { "kind": "upload" }, "value": 7340032.0 }
+                      ]
+                    }
+                    """)))
+    })
+    public ResponseEntity<Map<String, Object>> getMetrics() {
+        List<Map<String, Object>> timers = new ArrayList<>();
+        List<Map<String, Object>> gauges = new ArrayList<>();
+        List<Map<String, Object>> counters = new ArrayList<>();
+
+        List<Meter> meters = new ArrayList<>(meterRegistry.getMeters());
+        meters.sort(Comparator.comparing(meter -> meter.getId().toString()));
+        for (Meter meter : meters) {
+            String name = meter.getId().getName();
+            boolean own = name.startsWith(MetricsConfig.PREFIX);
+            if (own && meter instanceof Timer timer) {
+                timers.add(describeTimer(timer));
+            } else if (own && meter instanceof Counter counter) {
+                counters.add(describeMeter(counter, counter.count()));
+            } else if ((own || QUEUE_GAUGES.contains(name)) && meter instanceof Gauge gauge
+                    && !name.endsWith(".percentile")) {
+                // Percentile gauges repeat what the timers above already report
+                gauges.add(describeMeter(gauge, gauge.value()));
+            }
+        }
+
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("timers", timers);
+        metrics.put("gauges", gauges);
+        metrics.put("counters", counters);
+        return ResponseEntity.ok(metrics);
+    }
+
+    private static Map<String, Object> describeTimer(Timer timer) {
+        HistogramSnapshot snapshot = timer.takeSnapshot();
+        Map<String, Object> entry = describeMeter(timer, null);
+        entry.put("count", snapshot.count());
+        entry.put("meanMs", snapshot.mean(TimeUnit.MILLISECONDS));
+        entry.put("maxMs", snapshot.max(TimeUnit.MILLISECONDS));
+        for (ValueAtPercentile percentile : snapshot.percentileValues()) {
+            entry.put("p" + Math.round(percentile.percentile() * 100) + "Ms", percentile.value(TimeUnit.MILLISECONDS));
+        }
+        return entry;
+    }
+
+    private static Map<String, Object> describeMeter(Meter meter, Object value) {
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("name", meter.getId().getName());
+        Map<String, String> tags = new LinkedHashMap<>();
+        meter.getId().getTags().forEach(tag -> tags.put(tag.getKey(), tag.getValue()));
+        entry.put("tags", tags);
+        if (value != null) {
+            entry.put("value", value);
+        }
+        return entry;
+    }
+}
@@ -1,23 +1,44 @@
 package com.sasken.Controller;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.sasken.Model.AutosaveRequest;
 import com.sasken.Model.BlogPost;
+import com.sasken.Model.BlogPostPatch;
+import com.sasken.Model.BlogPostSummary;
+import com.sasken.Model.KeysetCursor;
 import com.sasken.Model.PostStatus;
+import com.sasken.Model.PostStatusHistory;
+import com.sasken.Model.SearchHit;
+import com.sasken.Model.StatusChangeRequest;
+import com.sasken.Model.StatusChangeResult;
 import com.sasken.Service.BlogPostService;
+import com.sasken.Service.SearchIndexService;
+import com.sasken.Service.SnapshotService;
+import com.sasken.Service.SnapshotService.Snapshot;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -28,16 +49,27 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 
 @RestController
 @RequestMapping("/api/posts")
-@CrossOrigin("*")
+@CrossOrigin(origins = "*", exposedHeaders = {BlogPostController.NEXT_CURSOR_HEADER, HttpHeaders.ETAG})
 @Tag(name = "Blog Posts", description = "Blog post management endpoints")
 public class BlogPostController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final int MAX_BATCH_SIZE = 500;
+
+    // Snapshots change whenever the post does; clients revalidate with the ETag
+    private static final String SNAPSHOT_CACHE_CONTROL = "public, no-cache";
+
     @Autowired
     private BlogPostService service;
 
+    @Autowired
+    private SnapshotService snapshots;
+
     @PostMapping
     @Operation(
         summary = "Create a new blog post",
@@ -81,8 +113,8 @@ public class BlogPostController {
     )
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Status changed successfully"),
-        @ApiResponse(responseCode = "400", description = "Invalid status transition"),
         @ApiResponse(responseCode = "404", description = "Post not found"),
+        @ApiResponse(responseCode = "409", description = "Transition not allowed from the post's current status"),
         @ApiResponse(responseCode = "500", description = "Internal server error")
     })
     public ResponseEntity<BlogPost> changeStatus(
@@ -94,26 +126,152 @@ public class BlogPostController {
         @Parameter(description = "ID of the user making the change", required = true)
         @RequestParam Long userId
     ) {
-        return ResponseEntity.ok(service.changeStatus(postId, status, userId));
+        try {
+            BlogPost post = service.changeStatus(postId, status, userId);
+            return ResponseEntity.ok().eTag(eTag(post)).body(post);
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
+    @PostMapping("/status/batch")
+    @Operation(
+        summary = "Change the status of several posts",
+        description = "Applies a list of status changes in one transaction. Every item is validated separately "
+            + "and gets its own result, so invalid transitions do not block the valid ones."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Batch processed; see the per-item results",
+            content = @Content(mediaType = "application/json",
+                examples = @ExampleObject(value = """
+                    [
+                      {"postId": 1, "previousStatus": "REVIEW", "status": "APPROVED", "success": true, "error": null},
+                      {"postId": 2, "previousStatus": "DRAFT", "status": "PUBLISHED", "success": false,
+                       "error": "Invalid status transition from DRAFT to PUBLISHED"}
+                    ]
+                    """))),
+        @ApiResponse(responseCode = "400", description = "Empty or oversized batch"),
+        @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<List<StatusChangeResult>> changeStatuses(
+        @Parameter(description = "Status changes to apply, as postId/status pairs", required = true)
+        @RequestBody List<StatusChangeRequest> changes,
+        @Parameter(description = "ID of the user making the change", required = true)
+        @RequestParam Long userId
+    ) {
+        if (changes == null || changes.isEmpty() || changes.size() > MAX_BATCH_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(service.changeStatuses(changes, userId));
     }
 
     @GetMapping
     @Operation(
-        summary = "Get all blog posts",
-        description = "Retrieves a list of all blog posts in the system"
+        summary = "List blog posts",
+        description = "Retrieves one page of blog posts, newest first. When more posts are available the "
+            + NEXT_CURSOR_HEADER + " response header carries the cursor for the next page."
     )
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Posts retrieved successfully"),
+        @ApiResponse(responseCode = "400", description = "Malformed cursor"),
+        @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<List<BlogPost>> getAll(
+        @Parameter(description = "Only return posts in this status",
+                   schema = @Schema(allowableValues = {"DRAFT", "REVIEW", "APPROVED", "PUBLISHED"}))
+        @RequestParam(required = false) PostStatus status,
+        @Parameter(description = "Only return posts by this author")
+        @RequestParam(required = false) Long authorId,
+        @Parameter(description = "Page size (default " + BlogPostService.DEFAULT_PAGE_SIZE
+            + ", max " + BlogPostService.MAX_PAGE_SIZE + ")")
+        @RequestParam(required = false) Integer limit,
+        @Parameter(description = "Cursor returned in the " + NEXT_CURSOR_HEADER + " header of the previous page")
+        @RequestParam(required = false) String cursor
+    ) {
+        List<BlogPost> posts;
+        try {
+            KeysetCursor after = cursor == null || cursor.isBlank() ? null : KeysetCursor.decode(cursor);
+            posts = service.getPosts(status, authorId, after, limit);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (posts.size() == BlogPostService.pageSize(limit)) {
+            response.header(NEXT_CURSOR_HEADER, KeysetCursor.of(posts.get(posts.size() - 1)).encode());
+        }
+        return response.body(posts);
+    }
+
+    @GetMapping("/summaries")
+    @Operation(
+        summary = "List blog post summaries",
+        description = "Lightweight variant of the post listing for list views. Returns title, status, author, "
+            + "dates, a short excerpt and the featured image URL without the post bodies. Paged the same way as "
+            + "GET /api/posts."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Summaries retrieved successfully"),
+        @ApiResponse(responseCode = "400", description = "Malformed cursor"),
         @ApiResponse(responseCode = "500", description = "Internal server error")
     })
-    public ResponseEntity<List<BlogPost>> getAll() {
-        return ResponseEntity.ok(service.getAllPosts());
+    public ResponseEntity<List<BlogPostSummary>> getSummaries(
+        @Parameter(description = "Only return posts in this status",
+                   schema = @Schema(allowableValues = {"DRAFT", "REVIEW", "APPROVED", "PUBLISHED"}))
+        @RequestParam(required = false) PostStatus status,
+        @Parameter(description = "Only return posts by this author")
+        @RequestParam(required = false) Long authorId,
+        @Parameter(description = "Page size (default " + BlogPostService.DEFAULT_PAGE_SIZE
+            + ", max " + BlogPostService.MAX_PAGE_SIZE + ")")
+        @RequestParam(required = false) Integer limit,
+        @Parameter(description = "Cursor returned in the " + NEXT_CURSOR_HEADER + " header of the previous page")
+        @RequestParam(required = false) String cursor
+    ) {
+        List<BlogPostSummary> summaries;
+        try {
+            KeysetCursor after = cursor == null || cursor.isBlank() ? null : KeysetCursor.decode(cursor);
+            summaries = service.getPostSummaries(status, authorId, after, limit);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (summaries.size() == BlogPostService.pageSize(limit)) {
+            response.header(NEXT_CURSOR_HEADER, KeysetCursor.of(summaries.get(summaries.size() - 1)).encode());
+        }
+        return response.body(summaries);
+    }
+
+    @GetMapping("/search")
+    @Operation(
+        summary = "Search blog posts",
+        description = "Full-text search over post titles and content. Matches any of the query words and "
+            + "returns the best matches first, ranked with BM25."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Search results, best match first"),
+        @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<List<SearchHit>> search(
+        @Parameter(description = "Words to search for", required = true)
+        @RequestParam String q,
+        @Parameter(description = "Only return posts in this status",
+                   schema = @Schema(allowableValues = {"DRAFT", "REVIEW", "APPROVED", "PUBLISHED"}))
+        @RequestParam(required = false) PostStatus status,
+        @Parameter(description = "Number of results (default " + SearchIndexService.DEFAULT_LIMIT
+            + ", max " + SearchIndexService.MAX_LIMIT + ")")
+        @RequestParam(required = false) Integer limit
+    ) {
+        return ResponseEntity.ok(service.search(q, status, limit));
     }
 
     @GetMapping("/{postId}")
     @Operation(
         summary = "Get a specific blog post",
-        description = "Retrieves a specific blog post by its ID"
+        description = "Retrieves a specific blog post by its ID. Published posts are served from a pre-rendered "
+            + "snapshot, gzipped when the client accepts it, without a database read."
     )
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Post retrieved successfully"),
@@ -122,9 +280,85 @@ public class BlogPostController {
     })
     public ResponseEntity<BlogPost> getOne(
         @Parameter(description = "ID of the post to retrieve", required = true)
+        @PathVariable Long postId,
+        HttpServletRequest request,
+        HttpServletResponse response
+    ) throws IOException {
+        Snapshot snapshot = snapshots.find(postId);
+        if (snapshot != null
+                && serveSnapshot(snapshot, snapshot.json(), snapshot.jsonGzip(), MediaType.APPLICATION_JSON,
+                        request, response)) {
+            // Already written from the snapshot
+            return null;
+        }
+        BlogPost post = service.getPost(postId);
+        return ResponseEntity.ok().eTag(eTag(post)).body(post);
+    }
+
+    @GetMapping("/{postId}/page")
+    @Operation(
+        summary = "Get a published post as a web page",
+        description = "Serves the pre-rendered HTML page of a published post, gzipped when the client accepts it"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Page served successfully"),
+        @ApiResponse(responseCode = "304", description = "Page not modified since the given ETag"),
+        @ApiResponse(responseCode = "404", description = "Post not found or not published")
+    })
+    public void getPage(
+        @Parameter(description = "ID of the published post", required = true)
+        @PathVariable Long postId,
+        HttpServletRequest request,
+        HttpServletResponse response
+    ) throws IOException {
+        Snapshot snapshot = snapshots.find(postId);
+        if (snapshot == null
+                || !serveSnapshot(snapshot, snapshot.html(), snapshot.htmlGzip(),
+                        new MediaType(MediaType.TEXT_HTML, StandardCharsets.UTF_8), request, response)) {
+            response.sendError(HttpStatus.NOT_FOUND.value());
+        }
+    }
+
+    /**
+     * Serves one representation of a snapshot. The ETag leads with the post
+     * version so If-Match keeps working, followed by the content hash so a
+     * rewrite at the same version (a new comment) is not answered with 304,
+     * and the gzipped bytes get a tag of their own. Returns false if the file
+     * was replaced or removed since the lookup.
+     */
+    private static boolean serveSnapshot(Snapshot snapshot, Path plain, Path gzipped, MediaType contentType,
+                                         HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        boolean gzip = FileResponder.acceptsEncoding(request, "gzip");
+        Path file = gzip ? gzipped : plain;
+        if (!gzip) {
+            // FileResponder adds it for the encoded variant
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+        // A newer snapshot deletes this one's files as soon as it is written
+        try {
+            FileResponder.serve(file, contentType, gzip ? "gzip" : null, eTag(snapshot, gzip),
+                    SNAPSHOT_CACHE_CONTROL, true, request, response);
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+        return true;
+    }
+
+    @GetMapping("/{postId}/history")
+    @Operation(
+        summary = "Get post status history",
+        description = "Retrieves every status transition of a post, oldest first"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "History retrieved successfully"),
+        @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<List<PostStatusHistory>> getHistory(
+        @Parameter(description = "ID of the post", required = true)
         @PathVariable Long postId
     ) {
-        return ResponseEntity.ok(service.getPost(postId));
+        return ResponseEntity.ok(service.getHistory(postId));
     }
 
     @DeleteMapping("/{postId}")
@@ -148,19 +382,142 @@ public class BlogPostController {
     @PutMapping("/{postId}")
     @Operation(
         summary = "Update a blog post",
-        description = "Updates an existing blog post with new content"
+        description = "Updates an existing blog post with new content. Send the post's ETag in If-Match to only "
+            + "update the version you last read."
     )
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Post updated successfully"),
         @ApiResponse(responseCode = "404", description = "Post not found"),
+        @ApiResponse(responseCode = "409", description = "Post was modified concurrently"),
+        @ApiResponse(responseCode = "412", description = "Post no longer matches If-Match"),
         @ApiResponse(responseCode = "500", description = "Internal server error")
     })
     public ResponseEntity<BlogPost> updatePost(
         @Parameter(description = "ID of the post to update", required = true)
         @PathVariable Long postId,
+        @Parameter(description = "ETag of the version being replaced")
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
         @Parameter(description = "Updated blog post data", required = true)
         @RequestBody BlogPost updatedPost
     ) {
-        return ResponseEntity.ok(service.updatePost(postId, updatedPost));
+        Long expectedVersion;
+        try {
+            expectedVersion = parseIfMatch(ifMatch);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
+        try {
+            BlogPost saved = service.updatePost(postId, updatedPost, expectedVersion);
+            return ResponseEntity.ok().eTag(eTag(saved)).body(saved);
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(ifMatch != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT).build();
+        }
+    }
+
+    @PatchMapping("/{postId}")
+    @Operation(
+        summary = "Partially update a blog post",
+        description = "Updates only the fields present in the request body (title, content, richContent, "
+            + "authorName). Send the post's ETag in If-Match to only update the version you last read."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Post updated successfully"),
+        @ApiResponse(responseCode = "404", description = "Post not found"),
+        @ApiResponse(responseCode = "409", description = "Post was modified concurrently"),
+        @ApiResponse(responseCode = "412", description = "Post no longer matches If-Match"),
+        @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<BlogPost> patchPost(
+        @Parameter(description = "ID of the post to update", required = true)
+        @PathVariable Long postId,
+        @Parameter(description = "ETag of the version being modified")
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+        @Parameter(description = "Fields to change", required = true)
+        @RequestBody BlogPostPatch patch
+    ) {
+        Long expectedVersion;
+        try {
+            expectedVersion = parseIfMatch(ifMatch);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
+        try {
+            BlogPost saved = service.patchPost(postId, patch, expectedVersion);
+            return ResponseEntity.ok().eTag(eTag(saved)).body(saved);
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(ifMatch != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT).build();
+        }
+    }
+
+    @PostMapping("/{postId}/autosave")
+    @Operation(
+        summary = "Autosave editor changes",
+        description = "Applies text edits to the title, content and richContent of a post, relative to the version "
+            + "the editor last saved. On success the new version is returned in the ETag header with no body. If the "
+            + "post has moved past the base version the current post is returned with 409 so the editor can resync."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "204", description = "Edits applied; new version in the ETag header"),
+        @ApiResponse(responseCode = "400", description = "Missing base version or an edit outside the text"),
+        @ApiResponse(responseCode = "404", description = "Post not found"),
+        @ApiResponse(responseCode = "409", description = "Base version is stale; body is the current post"),
+        @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<BlogPost> autosave(
+        @Parameter(description = "ID of the post being edited", required = true)
+        @PathVariable Long postId,
+        @Parameter(description = "Base version and the edits made since", required = true)
+        @RequestBody AutosaveRequest request
+    ) {
+        try {
+            BlogPost saved = service.autosave(postId, request);
+            return ResponseEntity.noContent().eTag(eTag(saved)).build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (OptimisticLockingFailureException e) {
+            try {
+                BlogPost current = service.getPost(postId);
+                return ResponseEntity.status(HttpStatus.CONFLICT).eTag(eTag(current)).body(current);
+            } catch (EntityNotFoundException deleted) {
+                // Deleted since the conflicting save
+                return ResponseEntity.notFound().build();
+            }
+        }
+    }
+
+    private static String eTag(BlogPost post) {
+        return eTag(post.getVersion());
+    }
+
+    private static String eTag(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    private static String eTag(Snapshot snapshot, boolean gzip) {
+        return "\"" + snapshot.version() + "-" + snapshot.contentHash() + (gzip ? "-gzip" : "") + "\"";
+    }
+
+    /**
+     * Returns the version named by an If-Match header, or null when the
+     * header is absent or "*". Snapshot tags carry the version before the
+     * first dash. Anything else cannot match a post version.
+     */
+    private static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() < 3 || tag.charAt(0) != '"' || tag.charAt(tag.length() - 1) != '"') {
+            throw new IllegalArgumentException("Unsupported If-Match value");
+        }
+        String value = tag.substring(1, tag.length() - 1);
+        int dash = value.indexOf('-');
+        return Long.parseLong(dash < 0 ? value : value.substring(0, dash));
     }
-}
\ No newline at end of file
+}
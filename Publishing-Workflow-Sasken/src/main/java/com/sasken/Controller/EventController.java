@@ -0,0 +1,45 @@
+package com.sasken.Controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.sasken.Service.EventStreamService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping("/api/events")
+@CrossOrigin(origins = "*")
+@Tag(name = "Events", description = "Live change notifications")
+public class EventController {
+
+    @Autowired
+    private EventStreamService eventStreamService;
+
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(
+        summary = "Subscribe to live events",
+        description = "Server-sent event stream of post-created, status-changed, deleted, media-ready and "
+            + "stats-delta events, with a heartbeat comment every 15 seconds. Reconnecting clients send "
+            + "Last-Event-ID to receive what they missed; a resync event means the client should reload."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Event stream opened")
+    })
+    public SseEmitter subscribe(
+        @Parameter(description = "ID of the last event received before reconnecting")
+        @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId
+    ) {
+        return eventStreamService.subscribe(lastEventId);
+    }
+}
@@ -0,0 +1,301 @@
+package com.sasken.Controller;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Serves files from disk with conditional GET (ETag / Last-Modified), single
+ * and multi-part byte ranges, and long-lived cache headers. Whole files and
+ * single ranges go to the socket through Tomcat's sendfile when the connector
+ * offers it, without passing through the heap. Otherwise, and for every
+ * multi-range response, FileChannel.transferTo writes into the servlet
+ * output stream, which the JDK copies through a heap buffer.
+ * <p>
+ * Tomcat opens a sendfile file by name after the handler has returned, so
+ * files that can be evicted or replaced meanwhile are served as
+ * {@code replaceable}: they are opened before any header is written and
+ * streamed before {@code serve} returns, never handed to sendfile.
+ */
+public final class FileResponder {
+
+    public static final String IMMUTABLE_CACHE_CONTROL = "public, max-age=31536000, immutable";
+
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private FileResponder() {
+    }
+
+    /**
+     * Resolves {@code fileName} inside {@code baseDir}, refusing anything that
+     * would escape it. Returns null when the name is unsafe.
+     */
+    public static Path resolve(Path baseDir, String fileName) {
+        Path base = baseDir.toAbsolutePath().normalize();
+        Path resolved = base.resolve(fileName).normalize();
+        return resolved.startsWith(base) && !resolved.equals(base) ? resolved : null;
+    }
+
+    public static void serve(Path file, String cacheControl, HttpServletRequest request,
+                             HttpServletResponse response) throws IOException {
+        serve(file, cacheControl, false, request, response);
+    }
+
+    public static void serve(Path file, String cacheControl, boolean replaceable, HttpServletRequest request,
+                             HttpServletResponse response) throws IOException {
+        MediaType contentType = file == null ? MediaType.APPLICATION_OCTET_STREAM
+                : MediaTypeFactory.getMediaType(file.getFileName().toString())
+                        .orElse(MediaType.APPLICATION_OCTET_STREAM);
+        serve(file, contentType, null, null, cacheControl, replaceable, request, response);
+    }
+
+    /**
+     * Serves {@code file} as {@code contentType}, already encoded with
+     * {@code contentEncoding} when that is not null. Without an explicit
+     * {@code etag} one is derived from the file's size and modification time.
+     * A {@code replaceable} file is fully written before this returns; if it
+     * is gone, {@link NoSuchFileException} is thrown before anything is written, so
+     * the caller can fall back.
+     */
+    public static void serve(Path file, MediaType contentType, String contentEncoding, String etag,
+                             String cacheControl, boolean replaceable, HttpServletRequest request,
+                             HttpServletResponse response) throws IOException {
+        if (file == null || (!replaceable && (!Files.isRegularFile(file) || !Files.isReadable(file)))) {
+            response.sendError(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+        // Once open, the file stays readable even if it is deleted
+        try (FileChannel channel = replaceable ? FileChannel.open(file, StandardOpenOption.READ) : null) {
+            serve(file, channel, contentType, contentEncoding, etag, cacheControl, request, response);
+        }
+    }
+
+    /** Serves {@code file} from {@code channel} when that is open, and by name otherwise. */
+    private static void serve(Path file, FileChannel channel, MediaType contentType, String contentEncoding,
+                              String etag, String cacheControl, HttpServletRequest request,
+                              HttpServletResponse response) throws IOException {
+        long length = channel != null ? channel.size() : Files.size(file);
+        long lastModified = Files.getLastModifiedTime(file).toMillis();
+        if (etag == null) {
+            etag = "\"" + Long.toHexString(length) + "-" + Long.toHexString(lastModified) + "\"";
+        }
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (contentEncoding != null) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, contentEncoding);
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+        if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+            return;
+        }
+
+        boolean headOnly = "HEAD".equals(request.getMethod());
+        List<HttpRange> ranges = requestedRanges(request, etag, length, lastModified);
+        if (ranges == null) {
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+            response.sendError(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+            return;
+        }
+
+        if (ranges.isEmpty()) {
+            response.setStatus(HttpStatus.OK.value());
+            response.setContentType(contentType.toString());
+            response.setContentLengthLong(length);
+            if (!headOnly) {
+                sendRegion(file, channel, 0, length, request, response);
+            }
+            return;
+        }
+
+        response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+        if (ranges.size() == 1) {
+            long start = ranges.get(0).getRangeStart(length);
+            long end = ranges.get(0).getRangeEnd(length);
+            response.setContentType(contentType.toString());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            response.setContentLengthLong(end - start + 1);
+            if (!headOnly) {
+                sendRegion(file, channel, start, end - start + 1, request, response);
+            }
+            return;
+        }
+
+        String boundary = UUID.randomUUID().toString();
+        response.setContentType("multipart/byteranges; boundary=" + boundary);
+        if (headOnly) {
+            return;
+        }
+        OutputStream out = response.getOutputStream();
+        try (FileChannel opened = channel == null ? FileChannel.open(file, StandardOpenOption.READ) : null) {
+            FileChannel source = channel != null ? channel : opened;
+            WritableByteChannel target = Channels.newChannel(out);
+            for (HttpRange range : ranges) {
+                long start = range.getRangeStart(length);
+                long end = range.getRangeEnd(length);
+                String partHeader = "\r\n--" + boundary + "\r\n"
+                        + HttpHeaders.CONTENT_TYPE + ": " + contentType + "\r\n"
+                        + HttpHeaders.CONTENT_RANGE + ": bytes " + start + "-" + end + "/" + length + "\r\n\r\n";
+                out.write(partHeader.getBytes(StandardCharsets.US_ASCII));
+                transfer(source, start, end - start + 1, target);
+            }
+            out.write(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII));
+        }
+    }
+
+    /** Whether the request's Accept-Encoding lists {@code encoding} with a non-zero quality. */
+    public static boolean acceptsEncoding(HttpServletRequest request, String encoding) {
+        String header = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (header == null) {
+            return false;
+        }
+        for (String coding : header.split(",")) {
+            String[] params = coding.split(";");
+            if (!params[0].trim().equalsIgnoreCase(encoding)) {
+                continue;
+            }
+            for (int i = 1; i < params.length; i++) {
+                String param = params[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        return Double.parseDouble(param.substring(2)) > 0;
+                    } catch (NumberFormatException e) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the ranges to serve, an empty list for the whole file, or null
+     * when the Range header cannot be satisfied.
+     */
+    private static List<HttpRange> requestedRanges(HttpServletRequest request, String etag, long length,
+                                                   long lastModified) {
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader == null) {
+            return List.of();
+        }
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange != null && !ifRange.equals(etag)) {
+            // A stale validator means the client's partial copy is outdated; send the whole file
+            long ifRangeDate;
+            try {
+                ifRangeDate = request.getDateHeader(HttpHeaders.IF_RANGE);
+            } catch (IllegalArgumentException e) {
+                return List.of();
+            }
+            if (ifRangeDate == -1 || lastModified / 1000 > ifRangeDate / 1000) {
+                return List.of();
+            }
+        }
+        List<HttpRange> ranges;
+        try {
+            ranges = HttpRange.parseRanges(rangeHeader);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        long requested = 0;
+        for (HttpRange range : ranges) {
+            long start = range.getRangeStart(length);
+            if (start >= length) {
+                return null;
+            }
+            requested += range.getRangeEnd(length) - start + 1;
+        }
+        // As in HttpRange.toResourceRegions: ranges adding up to the file
+        // (e.g. "0-,0-,0-") would send it many times over, so send it once
+        if (requested >= length) {
+            return List.of();
+        }
+        return coalesce(ranges, length);
+    }
+
+    /**
+     * Merges overlapping and adjacent ranges so no byte is sent twice,
+     * in file order; requests with nothing to merge keep their own order.
+     */
+    private static List<HttpRange> coalesce(List<HttpRange> ranges, long length) {
+        if (ranges.size() < 2) {
+            return ranges;
+        }
+        List<long[]> sorted = new ArrayList<>(ranges.size());
+        for (HttpRange range : ranges) {
+            sorted.add(new long[] {range.getRangeStart(length), range.getRangeEnd(length)});
+        }
+        sorted.sort(Comparator.comparingLong(bounds -> bounds[0]));
+        List<long[]> merged = new ArrayList<>();
+        for (long[] bounds : sorted) {
+            long[] last = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+            if (last != null && bounds[0] <= last[1] + 1) {
+                last[1] = Math.max(last[1], bounds[1]);
+            } else {
+                merged.add(bounds.clone());
+            }
+        }
+        if (merged.size() == ranges.size()) {
+            return ranges;
+        }
+        List<HttpRange> result = new ArrayList<>(merged.size());
+        for (long[] bounds : merged) {
+            result.add(HttpRange.createByteRange(bounds[0], bounds[1]));
+        }
+        return result;
+    }
+
+    private static void sendRegion(Path file, FileChannel channel, long start, long count,
+                                   HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (channel != null) {
+            transfer(channel, start, count, Channels.newChannel(response.getOutputStream()));
+            return;
+        }
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, start + count);
+            return;
+        }
+        try (FileChannel opened = FileChannel.open(file, StandardOpenOption.READ)) {
+            transfer(opened, start, count, Channels.newChannel(response.getOutputStream()));
+        }
+    }
+
+    private static void transfer(FileChannel channel, long position, long count, WritableByteChannel target)
+            throws IOException {
+        long end = position + count;
+        while (position < end) {
+            long sent = channel.transferTo(position, end - position, target);
+            if (sent <= 0) {
+                throw new IOException("Unexpected end of file");
+            }
+            position += sent;
+        }
+    }
+}
@@ -1,12 +1,25 @@
 package com.sasken.Controller;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
+import org.apache.commons.fileupload.FileItemIterator;
+import org.apache.commons.fileupload.FileItemStream;
+import org.apache.commons.fileupload.FileUpload;
+import org.apache.commons.fileupload.FileUploadException;
+import org.apache.commons.fileupload.UploadContext;
+import org.apache.commons.fileupload.util.Streams;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -17,18 +30,23 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
-import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
-import org.springframework.web.multipart.MultipartFile;
 
 import com.sasken.Model.BlogPost;
 import com.sasken.Model.Media;
+import com.sasken.Model.MediaSummary;
 import com.sasken.Service.BlogPostService;
 import com.sasken.Service.MediaService;
+import com.sasken.Service.MediaService.StagedUpload;
+import com.sasken.Service.RenditionService;
+import com.sasken.Service.RenditionService.Lease;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 
 @RestController
 @RequestMapping("/api/media")
@@ -42,83 +60,171 @@ public class MediaController {
     @Autowired
     private BlogPostService blogPostService;
 
-    @PostMapping("/upload")
+    @Autowired
+    private RenditionService renditionService;
+
+    @Value("${app.upload.dir:uploads}")
+    private String uploadDir;
+
+    @Value("${app.upload.max-size:10485760}")
+    private long maxFileSize;
+
+    // Headers and the small text fields that accompany the file
+    private static final long FORM_FIELD_ALLOWANCE = 64 * 1024;
+
+    @PostMapping(value = "/upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     @Operation(
         summary = "Upload media file",
-        description = "Upload an image, video, or document file for a blog post"
+        description = "Upload an image, video, or document file for a blog post as multipart/form-data with a "
+            + "\"file\" part and optional \"altText\" and \"caption\" fields. The body is streamed: the file type "
+            + "is identified from its first bytes rather than the declared Content-Type, and files that are not "
+            + "allowed or exceed the size limit are rejected with 400 as soon as that is known. Images and videos "
+            + "are returned in PROCESSING status and become READY (or FAILED) once thumbnails and metadata are "
+            + "generated."
     )
     public ResponseEntity<Media> uploadMedia(
-        @RequestPart("file") MultipartFile file,
-        @RequestParam("blogPostId") Long blogPostId,
-        @RequestParam(value = "altText", required = false) String altText,
-        @RequestParam(value = "caption", required = false) String caption
+        @Parameter(description = "ID of the blog post; may also be sent as a form field")
+        @RequestParam(value = "blogPostId", required = false) Long blogPostId,
+        HttpServletRequest request
     ) {
+        StagedUpload staged = null;
         try {
-            BlogPost blogPost = blogPostService.getPost(blogPostId);
-            Media media = mediaService.uploadMedia(file, blogPost, altText, caption);
+            // Looked up before the body is read, so a bad post ID costs no upload I/O
+            BlogPost blogPost = blogPostId != null ? blogPostService.getPost(blogPostId) : null;
+
+            // Fields may come before or after the file part
+            Map<String, String> fields = new HashMap<>();
+            FileItemIterator parts = newFileUpload().getItemIterator(new ServletUploadContext(request));
+            while (parts.hasNext()) {
+                FileItemStream part = parts.next();
+                try (InputStream in = part.openStream()) {
+                    if (part.isFormField()) {
+                        fields.put(part.getFieldName(), Streams.asString(in, StandardCharsets.UTF_8.name()));
+                    } else if ("file".equals(part.getFieldName()) && staged == null) {
+                        staged = mediaService.stageUpload(in, part.getName());
+                    }
+                }
+            }
+            if (staged == null) {
+                return ResponseEntity.badRequest().build();
+            }
+            if (blogPost == null) {
+                String formPostId = fields.get("blogPostId");
+                if (formPostId == null) {
+                    return ResponseEntity.badRequest().build();
+                }
+                blogPost = blogPostService.getPost(Long.valueOf(formPostId));
+            }
+
+            Media media = mediaService.completeUpload(staged, blogPost, fields.get("altText"), fields.get("caption"));
             return ResponseEntity.ok(media);
-        } catch (IOException e) {
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (IOException | FileUploadException | NumberFormatException e) {
             return ResponseEntity.badRequest().build();
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .build();
+        } finally {
+            if (staged != null) {
+                mediaService.discardUpload(staged);
+            }
+        }
+    }
+
+    private FileUpload newFileUpload() {
+        // Requests whose declared length is already over the limit are refused
+        // before any of the body is read; the service enforces the file limit
+        FileUpload upload = new FileUpload();
+        upload.setSizeMax(maxFileSize + FORM_FIELD_ALLOWANCE);
+        return upload;
+    }
+
+    /** Exposes a servlet request to the streaming multipart parser. */
+    private static final class ServletUploadContext implements UploadContext {
+
+        private final HttpServletRequest request;
+
+        ServletUploadContext(HttpServletRequest request) {
+            this.request = request;
+        }
+
+        @Override
+        public String getCharacterEncoding() {
+            return request.getCharacterEncoding();
+        }
+
+        @Override
+        public String getContentType() {
+            return request.getContentType();
+        }
+
+        @Override
+        @Deprecated
+        public int getContentLength() {
+            return request.getContentLength();
+        }
+
+        @Override
+        public long contentLength() {
+            return request.getContentLengthLong();
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return request.getInputStream();
         }
     }
 
     @GetMapping("/post/{blogPostId}")
     @Operation(
         summary = "Get media by blog post",
-        description = "Retrieve all media files associated with a specific blog post"
+        description = "Retrieve all media files associated with a specific blog post. Each item carries the "
+            + "post's ID and title rather than the whole post."
     )
-    public ResponseEntity<List<Media>> getMediaByBlogPost(
+    public ResponseEntity<List<MediaSummary>> getMediaByBlogPost(
         @Parameter(description = "ID of the blog post", required = true)
         @PathVariable Long blogPostId
     ) {
-        List<Media> media = mediaService.getMediaByBlogPost(blogPostId);
+        List<MediaSummary> media = mediaService.getMediaByBlogPost(blogPostId);
         return ResponseEntity.ok(media);
     }
 
     @GetMapping("/recent/images")
     @Operation(
         summary = "Get recent images",
-        description = "Retrieve recently uploaded images"
+        description = "Retrieve the " + MediaService.RECENT_MEDIA_LIMIT + " most recently uploaded images"
     )
-    public ResponseEntity<List<Media>> getRecentImages() {
-        List<Media> images = mediaService.getRecentImages();
+    public ResponseEntity<List<MediaSummary>> getRecentImages() {
+        List<MediaSummary> images = mediaService.getRecentImages();
         return ResponseEntity.ok(images);
     }
 
     @GetMapping("/recent/videos")
     @Operation(
         summary = "Get recent videos",
-        description = "Retrieve recently uploaded videos"
+        description = "Retrieve the " + MediaService.RECENT_MEDIA_LIMIT + " most recently uploaded videos"
     )
-    public ResponseEntity<List<Media>> getRecentVideos() {
-        List<Media> videos = mediaService.getRecentVideos();
+    public ResponseEntity<List<MediaSummary>> getRecentVideos() {
+        List<MediaSummary> videos = mediaService.getRecentVideos();
         return ResponseEntity.ok(videos);
     }
 
     @GetMapping("/file/{fileName}")
     @Operation(
         summary = "Download media file",
-        description = "Download a media file by its filename"
+        description = "Download a media file by its filename. Supports conditional requests (ETag, Last-Modified) "
+            + "and byte ranges; files are content-addressed and cached as immutable."
     )
-    public ResponseEntity<Resource> downloadFile(
+    public void downloadFile(
         @Parameter(description = "Name of the file to download", required = true)
-        @PathVariable String fileName
-    ) {
-        try {
-            java.nio.file.Path filePath = java.nio.file.Paths.get("uploads").resolve(fileName);
-            Resource resource = new UrlResource(filePath.toUri());
-
-            if (resource.exists() && resource.isReadable()) {
-                return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + fileName + "\"")
-                    .contentType(MediaType.APPLICATION_OCTET_STREAM)
-                    .body(resource);
-            } else {
-                return ResponseEntity.notFound().build();
-            }
-        } catch (Exception e) {
-            return ResponseEntity.notFound().build();
-        }
+        @PathVariable String fileName,
+        HttpServletRequest request,
+        HttpServletResponse response
+    ) throws IOException {
+        Path filePath = FileResponder.resolve(Paths.get(uploadDir), fileName);
+        FileResponder.serve(filePath, FileResponder.IMMUTABLE_CACHE_CONTROL, request, response);
     }
 
     @GetMapping("/thumbnail/{fileName}")
@@ -126,24 +232,36 @@ public class MediaController {
         summary = "Get thumbnail",
         description = "Get a thumbnail image for a media file"
     )
-    public ResponseEntity<Resource> getThumbnail(
+    public void getThumbnail(
         @Parameter(description = "Name of the thumbnail file", required = true)
-        @PathVariable String fileName
-    ) {
-        try {
-            java.nio.file.Path filePath = java.nio.file.Paths.get("uploads/thumbnails").resolve(fileName);
-            Resource resource = new UrlResource(filePath.toUri());
-
-            if (resource.exists() && resource.isReadable()) {
-                return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + fileName + "\"")
-                    .contentType(MediaType.IMAGE_JPEG)
-                    .body(resource);
-            } else {
-                return ResponseEntity.notFound().build();
-            }
-        } catch (Exception e) {
-            return ResponseEntity.notFound().build();
+        @PathVariable String fileName,
+        HttpServletRequest request,
+        HttpServletResponse response
+    ) throws IOException {
+        Path filePath = FileResponder.resolve(Paths.get(uploadDir, "thumbnails"), fileName);
+        FileResponder.serve(filePath, FileResponder.IMMUTABLE_CACHE_CONTROL, request, response);
+    }
+
+    @GetMapping("/rendition/{fileName}")
+    @Operation(
+        summary = "Get resized image",
+        description = "Get an image scaled down to the requested width. Widths snap up to the nearest breakpoint "
+            + "(160, 320, 640, 960, 1280, 1920); renditions are generated on first request and cached on disk. "
+            + "Images already narrower than the breakpoint are served as-is."
+    )
+    public void getRendition(
+        @Parameter(description = "Name of the original image file", required = true)
+        @PathVariable String fileName,
+        @Parameter(description = "Target width in pixels", required = true)
+        @RequestParam("w") int width,
+        HttpServletRequest request,
+        HttpServletResponse response
+    ) throws IOException {
+        // Held while serving so the rendition cannot be evicted in between;
+        // replaceable keeps the bytes from going out after the lease is closed
+        try (Lease rendition = renditionService.openRendition(fileName, width)) {
+            FileResponder.serve(rendition != null ? rendition.path() : null, FileResponder.IMMUTABLE_CACHE_CONTROL,
+                    true, request, response);
         }
     }
 
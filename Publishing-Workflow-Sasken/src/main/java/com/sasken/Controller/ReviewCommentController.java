@@ -0,0 +1,146 @@
+package com.sasken.Controller;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.sasken.Model.KeysetCursor;
+import com.sasken.Model.ReviewComment;
+import com.sasken.Service.BlogPostService;
+import com.sasken.Service.ReviewCommentService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.ExampleObject;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.persistence.EntityNotFoundException;
+
+@RestController
+@RequestMapping("/api/posts")
+@CrossOrigin(origins = "*", exposedHeaders = BlogPostController.NEXT_CURSOR_HEADER)
+@Tag(name = "Review Comments", description = "Reviewer comments on blog posts")
+public class ReviewCommentController {
+
+    private static final int MAX_BATCH_SIZE = 500;
+
+    @Autowired
+    private ReviewCommentService commentService;
+
+    @GetMapping("/{postId}/comments")
+    @Operation(
+        summary = "List comments on a post",
+        description = "Retrieves one page of review comments, oldest first. When more comments are available the "
+            + BlogPostController.NEXT_CURSOR_HEADER + " response header carries the cursor for the next page."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Comments retrieved successfully"),
+        @ApiResponse(responseCode = "400", description = "Malformed cursor"),
+        @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<List<ReviewComment>> getComments(
+        @Parameter(description = "ID of the post", required = true)
+        @PathVariable Long postId,
+        @Parameter(description = "Page size (default " + BlogPostService.DEFAULT_PAGE_SIZE
+            + ", max " + BlogPostService.MAX_PAGE_SIZE + ")")
+        @RequestParam(required = false) Integer limit,
+        @Parameter(description = "Cursor returned in the " + BlogPostController.NEXT_CURSOR_HEADER
+            + " header of the previous page")
+        @RequestParam(required = false) String cursor
+    ) {
+        List<ReviewComment> comments;
+        try {
+            KeysetCursor after = cursor == null || cursor.isBlank() ? null : KeysetCursor.decode(cursor);
+            comments = commentService.getComments(postId, after, limit);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (comments.size() == BlogPostService.pageSize(limit)) {
+            response.header(BlogPostController.NEXT_CURSOR_HEADER,
+                    KeysetCursor.of(comments.get(comments.size() - 1)).encode());
+        }
+        return response.body(comments);
+    }
+
+    @PostMapping(value = "/{postId}/comment", consumes = MediaType.TEXT_PLAIN_VALUE)
+    @Operation(
+        summary = "Add a comment to a post",
+        description = "Adds a single review comment. The request body is the plain comment text."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "201", description = "Comment added"),
+        @ApiResponse(responseCode = "400", description = "Empty or oversized comment"),
+        @ApiResponse(responseCode = "404", description = "Post not found"),
+        @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<ReviewComment> addComment(
+        @Parameter(description = "ID of the post", required = true)
+        @PathVariable Long postId,
+        @Parameter(description = "ID of the commenting user", required = true)
+        @RequestParam Long userId,
+        @Parameter(description = "Comment text", required = true)
+        @RequestBody String comment
+    ) {
+        try {
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .body(commentService.addComment(postId, userId, comment));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @PostMapping("/{postId}/comments")
+    @Operation(
+        summary = "Add several comments to a post",
+        description = "Adds a list of review comments in one batch. Either all comments are stored or none are."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "201", description = "Comments added",
+            content = @Content(mediaType = "application/json",
+                examples = @ExampleObject(value = """
+                    [
+                      {"id": 41, "postId": 7, "commenterId": 2, "comment": "Tighten the intro",
+                       "commentedAt": "2024-01-15T10:30:00"},
+                      {"id": 42, "postId": 7, "commenterId": 2, "comment": "Add a source for the figures",
+                       "commentedAt": "2024-01-15T10:30:00"}
+                    ]
+                    """))),
+        @ApiResponse(responseCode = "400", description = "Empty or oversized batch, or an invalid comment"),
+        @ApiResponse(responseCode = "404", description = "Post not found"),
+        @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<List<ReviewComment>> addComments(
+        @Parameter(description = "ID of the post", required = true)
+        @PathVariable Long postId,
+        @Parameter(description = "Comments to add, as commenterId/comment pairs", required = true)
+        @RequestBody List<ReviewComment> comments
+    ) {
+        if (comments == null || comments.isEmpty() || comments.size() > MAX_BATCH_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return ResponseEntity.status(HttpStatus.CREATED).body(commentService.addComments(postId, comments));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+}
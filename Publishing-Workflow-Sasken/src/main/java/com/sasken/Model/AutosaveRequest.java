@@ -0,0 +1,24 @@
+package com.sasken.Model;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Edits made since {@code baseVersion}. Each edit list is applied in order,
+ * every offset referring to the text as left by the previous edit. A null
+ * title or edit list leaves that field unchanged.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AutosaveRequest {
+    private Long baseVersion;
+    private String title;
+    private List<TextEdit> contentEdits;
+    private List<TextEdit> richContentEdits;
+}
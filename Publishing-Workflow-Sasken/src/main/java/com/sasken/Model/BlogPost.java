@@ -3,15 +3,26 @@ package com.sasken.Model;
 import java.time.LocalDateTime;
 import java.util.List;
 
+import org.hibernate.Length;
+import org.hibernate.annotations.DynamicUpdate;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.Table;
 import jakarta.persistence.Transient;
+import jakarta.persistence.Version;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -19,23 +30,42 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
+@Table(indexes = {
+    @Index(name = "idx_blog_post_updated", columnList = "updatedAt, id"),
+    @Index(name = "idx_blog_post_status_updated", columnList = "status, updatedAt, id"),
+    @Index(name = "idx_blog_post_author_updated", columnList = "authorId, updatedAt, id")
+})
+@DynamicUpdate
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class BlogPost {
+
+    public static final int EXCERPT_LENGTH = 200;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
     private String title;
 
-    @Column(length = 10000)
-    private String content;
+    // Bodies are stored deflated with no length cap and inflated only when
+    // read through getContent/getRichContent.
+    @JsonIgnore
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @Convert(converter = DeflatedTextConverter.class)
+    @Column(name = "content_deflated", length = Length.LONG32)
+    private DeflatedText contentBody;
 
-    @Column(length = 10000)
-    private String richContent; // HTML content with media
+    @JsonIgnore
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @Convert(converter = DeflatedTextConverter.class)
+    @Column(name = "rich_content_deflated", length = Length.LONG32)
+    private DeflatedText richContentBody; // HTML content with media
 
     @Enumerated(EnumType.STRING)
     private PostStatus status;
@@ -45,13 +75,68 @@ public class BlogPost {
 
     private Long authorId;
     private String authorName; // Added author name field
+
+    // Exposed as the ETag of the post; the default fills rows created before
+    // the column existed.
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
+    // Maintained by ReviewCommentService with an in-place increment. Never
+    // written from a loaded entity, so saving a stale copy cannot reset it.
+    // Rows that predate the column are filled by CommentCountBackfillService.
+    @Column(updatable = false)
+    private Long commentCount;
     
+    // Served by /api/media/post/{id}; cached posts are detached, so the lazy
+    // collection cannot be serialized from them.
+    @JsonIgnore
     @OneToMany(mappedBy = "blogPost")
     private List<Media> media;
     
     @Transient
     private String featuredImageUrl;
     
-    @Transient
-    private String excerpt; // Generated excerpt from content
+    // Generated from content on every change, so list views never touch the
+    // bodies; read-only in JSON so a request cannot set it through the field
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Setter(AccessLevel.NONE)
+    @Column(length = EXCERPT_LENGTH + 3)
+    private String excerpt;
+
+    public String getContent() {
+        return contentBody != null ? contentBody.text() : null;
+    }
+
+    public void setContent(String content) {
+        this.contentBody = DeflatedText.of(content);
+        this.excerpt = excerptOf(content);
+    }
+
+    public String getRichContent() {
+        return richContentBody != null ? richContentBody.text() : null;
+    }
+
+    public void setRichContent(String richContent) {
+        this.richContentBody = DeflatedText.of(richContent);
+    }
+
+    /**
+     * Heap held by the bodies once they are read: the deflated bytes plus
+     * the inflated text at two bytes per char. Inflates both, so a cached
+     * post does not grow past the weight it was admitted with.
+     */
+    public long bodyFootprint() {
+        return footprint(contentBody) + footprint(richContentBody);
+    }
+
+    private static long footprint(DeflatedText body) {
+        return body != null ? body.bytes().length + 2L * body.text().length() : 0;
+    }
+
+    public static String excerptOf(String content) {
+        return content != null && content.length() > EXCERPT_LENGTH
+                ? content.substring(0, EXCERPT_LENGTH) + "..."
+                : content;
+    }
 }
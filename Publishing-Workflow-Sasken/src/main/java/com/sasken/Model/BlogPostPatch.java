@@ -0,0 +1,20 @@
+package com.sasken.Model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Partial update of a BlogPost. Only non-null fields are applied.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BlogPostPatch {
+    private String title;
+    private String content;
+    private String richContent;
+    private String authorName;
+}
@@ -0,0 +1,44 @@
+package com.sasken.Model;
+
+import java.time.LocalDateTime;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * List-view projection of a BlogPost. Built directly by JPQL constructor
+ * expressions from the stored excerpt, so the content and richContent
+ * bodies are never transferred.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class BlogPostSummary {
+
+    private Long id;
+    private String title;
+    private PostStatus status;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private Long authorId;
+    private String authorName;
+    private String excerpt;
+    private String featuredImageUrl;
+    private long commentCount;
+
+    public BlogPostSummary(Long id, String title, PostStatus status, LocalDateTime createdAt,
+                           LocalDateTime updatedAt, Long authorId, String authorName,
+                           String excerpt, String featuredImageUrl, Long commentCount) {
+        this.id = id;
+        this.title = title;
+        this.status = status;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.authorId = authorId;
+        this.authorName = authorName;
+        this.excerpt = excerpt;
+        this.featuredImageUrl = featuredImageUrl;
+        this.commentCount = commentCount != null ? commentCount : 0;
+    }
+}
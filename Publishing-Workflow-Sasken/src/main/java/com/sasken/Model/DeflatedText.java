@@ -0,0 +1,100 @@
+package com.sasken.Model;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import org.hibernate.annotations.Immutable;
+
+/**
+ * A UTF-8 string held in deflated form. The text is only inflated the
+ * first time it is asked for, so entities can be loaded and saved without
+ * decompressing bodies nobody reads. Equality is on the compressed bytes,
+ * which keeps Hibernate's dirty checking from inflating either side.
+ */
+@Immutable
+public final class DeflatedText {
+
+    private final byte[] compressed;
+    private volatile String text;
+
+    private DeflatedText(byte[] compressed, String text) {
+        this.compressed = compressed;
+        this.text = text;
+    }
+
+    public static DeflatedText of(String text) {
+        return text != null ? new DeflatedText(deflate(text), text) : null;
+    }
+
+    public static DeflatedText fromBytes(byte[] compressed) {
+        return compressed != null ? new DeflatedText(compressed, null) : null;
+    }
+
+    public byte[] bytes() {
+        return compressed;
+    }
+
+    public String text() {
+        String result = text;
+        if (result == null) {
+            result = inflate(compressed);
+            text = result;
+        }
+        return result;
+    }
+
+    private static byte[] deflate(String text) {
+        byte[] input = text.getBytes(StandardCharsets.UTF_8);
+        Deflater deflater = new Deflater();
+        try {
+            deflater.setInput(input);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, input.length / 2));
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static String inflate(byte[] compressed) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(compressed.length * 4);
+            byte[] buffer = new byte[8192];
+            while (!inflater.finished()) {
+                int n = inflater.inflate(buffer);
+                // An empty text finishes the stream without producing a byte
+                if (n == 0 && !inflater.finished() && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IOException("Truncated deflate stream");
+                }
+                out.write(buffer, 0, n);
+            }
+            return out.toString(StandardCharsets.UTF_8);
+        } catch (DataFormatException | IOException e) {
+            throw new UncheckedIOException(new IOException("Corrupt compressed text", e));
+        } finally {
+            inflater.end();
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof DeflatedText other && Arrays.equals(compressed, other.compressed);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(compressed);
+    }
+}
@@ -0,0 +1,18 @@
+package com.sasken.Model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+@Converter
+public class DeflatedTextConverter implements AttributeConverter<DeflatedText, byte[]> {
+
+    @Override
+    public byte[] convertToDatabaseColumn(DeflatedText attribute) {
+        return attribute != null ? attribute.bytes() : null;
+    }
+
+    @Override
+    public DeflatedText convertToEntityAttribute(byte[] dbData) {
+        return DeflatedText.fromBytes(dbData);
+    }
+}
@@ -0,0 +1,44 @@
+package com.sasken.Model;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque keyset position over a (timestamp, id) pair, used to page through
+ * posts by (updatedAt, id) and review comments by (commentedAt, id).
+ * Clients only ever see the encoded string.
+ */
+public record KeysetCursor(LocalDateTime timestamp, Long id) {
+
+    public static KeysetCursor of(BlogPost post) {
+        return new KeysetCursor(post.getUpdatedAt(), post.getId());
+    }
+
+    public static KeysetCursor of(BlogPostSummary summary) {
+        return new KeysetCursor(summary.getUpdatedAt(), summary.getId());
+    }
+
+    public static KeysetCursor of(ReviewComment comment) {
+        return new KeysetCursor(comment.getCommentedAt(), comment.getId());
+    }
+
+    public String encode() {
+        String raw = timestamp + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int sep = raw.indexOf('|');
+            if (sep < 0) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            return new KeysetCursor(LocalDateTime.parse(raw.substring(0, sep)), Long.parseLong(raw.substring(sep + 1)));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed cursor", e);
+        }
+    }
+}
@@ -2,15 +2,20 @@ package com.sasken.Model;
 
 import java.time.LocalDateTime;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -18,6 +23,10 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
+@Table(indexes = {
+    @Index(name = "idx_media_content_hash", columnList = "contentHash"),
+    @Index(name = "idx_media_file_name", columnList = "fileName")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -35,6 +44,9 @@ public class Media {
     private String fileType; // image, video, document
     private String mimeType;
     private Long fileSize;
+
+    @Column(length = 64)
+    private String contentHash; // SHA-256 of the file; rows with equal hashes share one stored file
     
     @Column(length = 1000)
     private String altText;
@@ -43,7 +55,11 @@ public class Media {
     @Enumerated(EnumType.STRING)
     private MediaStatus status;
     
-    @ManyToOne
+    // Lazy so lookups by ID or hash skip the post; the finders whose results
+    // are returned by the API fetch it in the same query. The bodies are
+    // left out of the JSON so a media row never inflates them.
+    @JsonIgnoreProperties({"content", "richContent"})
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "blog_post_id")
     private BlogPost blogPost;
     
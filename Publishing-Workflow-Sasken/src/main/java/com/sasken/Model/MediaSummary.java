@@ -0,0 +1,64 @@
+package com.sasken.Model;
+
+import java.time.LocalDateTime;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * List-view projection of a Media row with the ID and title of its post.
+ * Built directly by JPQL constructor expressions, so listings never load
+ * the post row and its deflated bodies.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class MediaSummary {
+
+    private Long id;
+    private String fileName;
+    private String originalFileName;
+    private String fileUrl;
+    private String fileType;
+    private String mimeType;
+    private Long fileSize;
+    private String altText;
+    private String caption;
+    private MediaStatus status;
+    private LocalDateTime uploadedAt;
+    private LocalDateTime updatedAt;
+    private Integer width;
+    private Integer height;
+    private String thumbnailPath;
+    private Integer duration;
+    private String thumbnailPathVideo;
+    private Long blogPostId;
+    private String blogPostTitle;
+
+    public MediaSummary(Long id, String fileName, String originalFileName, String fileUrl, String fileType,
+                        String mimeType, Long fileSize, String altText, String caption, MediaStatus status,
+                        LocalDateTime uploadedAt, LocalDateTime updatedAt, Integer width, Integer height,
+                        String thumbnailPath, Integer duration, String thumbnailPathVideo,
+                        Long blogPostId, String blogPostTitle) {
+        this.id = id;
+        this.fileName = fileName;
+        this.originalFileName = originalFileName;
+        this.fileUrl = fileUrl;
+        this.fileType = fileType;
+        this.mimeType = mimeType;
+        this.fileSize = fileSize;
+        this.altText = altText;
+        this.caption = caption;
+        this.status = status;
+        this.uploadedAt = uploadedAt;
+        this.updatedAt = updatedAt;
+        this.width = width;
+        this.height = height;
+        this.thumbnailPath = thumbnailPath;
+        this.duration = duration;
+        this.thumbnailPathVideo = thumbnailPathVideo;
+        this.blogPostId = blogPostId;
+        this.blogPostTitle = blogPostTitle;
+    }
+}
@@ -2,12 +2,17 @@ package com.sasken.Model;
 
 import java.time.LocalDateTime;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -15,6 +20,10 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
+@Table(indexes = {
+    @Index(name = "idx_status_history_post", columnList = "postId, changedAt"),
+    @Index(name = "uk_status_history_entry", columnList = "entryId", unique = true)
+})
 @Getter @Setter
 @NoArgsConstructor
 @AllArgsConstructor
@@ -35,4 +44,11 @@ public class PostStatusHistory {
 
     private Long changedBy;
     private LocalDateTime changedAt;
+
+    // Assigned when the transition is queued, so a pending entry can be
+    // matched to its row once the write-behind flush has stored it. Unique,
+    // so the spill replay looks entries up by index and never stores one twice
+    @JsonIgnore
+    @Column(length = 36, updatable = false)
+    private String entryId;
 }
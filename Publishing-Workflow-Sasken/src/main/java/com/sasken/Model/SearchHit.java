@@ -0,0 +1,17 @@
+package com.sasken.Model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchHit {
+    private Long postId;
+    private String title;
+    private PostStatus status;
+    private double score;
+}
@@ -0,0 +1,15 @@
+package com.sasken.Model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatusChangeRequest {
+    private Long postId;
+    private PostStatus status;
+}
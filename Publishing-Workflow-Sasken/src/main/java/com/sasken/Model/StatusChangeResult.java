@@ -0,0 +1,20 @@
+package com.sasken.Model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StatusChangeResult {
+    private Long postId;
+    private PostStatus previousStatus;
+    private PostStatus status;
+    private boolean success;
+    private String error;
+}
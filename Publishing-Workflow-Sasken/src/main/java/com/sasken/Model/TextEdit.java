@@ -0,0 +1,21 @@
+package com.sasken.Model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Replaces {@code deleteCount} characters at {@code offset} with
+ * {@code insert}. Offsets count UTF-16 code units, the same as JavaScript
+ * string indices.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TextEdit {
+    private int offset;
+    private int deleteCount;
+    private String insert;
+}
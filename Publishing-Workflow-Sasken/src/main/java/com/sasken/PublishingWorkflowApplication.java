@@ -2,8 +2,13 @@ package com.sasken;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.web.servlet.MultipartAutoConfiguration;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
-@SpringBootApplication
+// Uploads are parsed as a stream by MediaController; servlet multipart
+// handling would buffer the whole body before the controller sees it
+@SpringBootApplication(exclude = MultipartAutoConfiguration.class)
+@EnableScheduling
 public class PublishingWorkflowApplication {
     public static void main(String[] args) {
         SpringApplication.run(PublishingWorkflowApplication.class, args);
@@ -1,8 +1,105 @@
 package com.sasken.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.sasken.Model.BlogPost;
+import com.sasken.Model.BlogPostSummary;
+import com.sasken.Model.PostStatus;
 
 public interface BlogPostRepository extends JpaRepository<BlogPost, Long> {
+
+    interface StatusCount {
+        PostStatus getStatus();
+        long getTotal();
+    }
+
+    interface IdAndStatus {
+        Long getId();
+        PostStatus getStatus();
+    }
+
+    interface IdStatusAndVersion extends IdAndStatus {
+        Long getVersion();
+    }
+
+    String SUMMARY_SELECT = "SELECT new com.sasken.Model.BlogPostSummary("
+            + "p.id, p.title, p.status, p.createdAt, p.updatedAt, p.authorId, p.authorName,"
+            + " p.excerpt,"
+            + " (SELECT m.fileUrl FROM Media m WHERE m.id ="
+            + "   (SELECT MIN(m2.id) FROM Media m2 WHERE m2.blogPost = p AND m2.fileType = 'image')),"
+            + " p.commentCount)"
+            + " FROM BlogPost p";
+
+    @Query("SELECT p.status AS status, COUNT(p) AS total FROM BlogPost p GROUP BY p.status")
+    List<StatusCount> countGroupedByStatus();
+
+    @Query("SELECT p.status FROM BlogPost p WHERE p.id = :postId")
+    Optional<PostStatus> findStatusById(@Param("postId") Long postId);
+
+    @Query("SELECT p.id AS id, p.status AS status FROM BlogPost p WHERE p.id IN :ids")
+    List<IdAndStatus> findStatusesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT p.id AS id, p.status AS status, p.version AS version FROM BlogPost p WHERE p.id IN :ids")
+    List<IdStatusAndVersion> findVersionsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE BlogPost p SET p.status = :next, p.updatedAt = :updatedAt, p.version = p.version + 1"
+            + " WHERE p.id = :postId AND p.status IN :expected")
+    int compareAndSetStatus(@Param("postId") Long postId,
+                            @Param("expected") Collection<PostStatus> expected,
+                            @Param("next") PostStatus next,
+                            @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Modifying
+    @Query("UPDATE BlogPost p SET p.commentCount = COALESCE(p.commentCount, 0) + :delta WHERE p.id = :postId")
+    int incrementCommentCount(@Param("postId") Long postId, @Param("delta") long delta);
+
+    @Query("SELECT p FROM BlogPost p"
+            + " WHERE (:status IS NULL OR p.status = :status)"
+            + " AND (:authorId IS NULL OR p.authorId = :authorId)"
+            + " ORDER BY p.updatedAt DESC, p.id DESC")
+    List<BlogPost> findFirstPage(@Param("status") PostStatus status,
+                                 @Param("authorId") Long authorId,
+                                 Limit limit);
+
+    @Query("SELECT p FROM BlogPost p"
+            + " WHERE (:status IS NULL OR p.status = :status)"
+            + " AND (:authorId IS NULL OR p.authorId = :authorId)"
+            + " AND (p.updatedAt < :updatedAt OR (p.updatedAt = :updatedAt AND p.id < :id))"
+            + " ORDER BY p.updatedAt DESC, p.id DESC")
+    List<BlogPost> findPageAfter(@Param("status") PostStatus status,
+                                 @Param("authorId") Long authorId,
+                                 @Param("updatedAt") LocalDateTime updatedAt,
+                                 @Param("id") Long id,
+                                 Limit limit);
+
+    @Query(SUMMARY_SELECT
+            + " WHERE (:status IS NULL OR p.status = :status)"
+            + " AND (:authorId IS NULL OR p.authorId = :authorId)"
+            + " ORDER BY p.updatedAt DESC, p.id DESC")
+    List<BlogPostSummary> findSummaryFirstPage(@Param("status") PostStatus status,
+                                               @Param("authorId") Long authorId,
+                                               Limit limit);
+
+    @Query(SUMMARY_SELECT
+            + " WHERE (:status IS NULL OR p.status = :status)"
+            + " AND (:authorId IS NULL OR p.authorId = :authorId)"
+            + " AND (p.updatedAt < :updatedAt OR (p.updatedAt = :updatedAt AND p.id < :id))"
+            + " ORDER BY p.updatedAt DESC, p.id DESC")
+    List<BlogPostSummary> findSummaryPageAfter(@Param("status") PostStatus status,
+                                               @Param("authorId") Long authorId,
+                                               @Param("updatedAt") LocalDateTime updatedAt,
+                                               @Param("id") Long id,
+                                               Limit limit);
 }
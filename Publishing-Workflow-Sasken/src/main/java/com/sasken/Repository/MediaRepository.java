@@ -1,33 +1,73 @@
 package com.sasken.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.sasken.Model.Media;
 import com.sasken.Model.MediaStatus;
+import com.sasken.Model.MediaSummary;
 
 @Repository
 public interface MediaRepository extends JpaRepository<Media, Long> {
+
+    // Listings return the post's ID and title only, read through a join
+    // rather than by loading each row's post with its bodies
+    String SUMMARY_SELECT = "SELECT new com.sasken.Model.MediaSummary("
+            + "m.id, m.fileName, m.originalFileName, m.fileUrl, m.fileType, m.mimeType, m.fileSize,"
+            + " m.altText, m.caption, m.status, m.uploadedAt, m.updatedAt, m.width, m.height,"
+            + " m.thumbnailPath, m.duration, m.thumbnailPathVideo, p.id, p.title)"
+            + " FROM Media m LEFT JOIN m.blogPost p";
+
+    @Query(SUMMARY_SELECT + " WHERE p.id = :postId ORDER BY m.id")
+    List<MediaSummary> findSummariesByBlogPostId(@Param("postId") Long blogPostId);
+
+    // Other finders whose results the API returns fetch the post in the same
+    // query rather than with one select per row
     
-    List<Media> findByBlogPostId(Long blogPostId);
-    
+    @EntityGraph(attributePaths = "blogPost")
     List<Media> findByFileType(String fileType);
+
+    @EntityGraph(attributePaths = "blogPost")
+    Optional<Media> findWithBlogPostById(Long id);
     
     List<Media> findByStatus(MediaStatus status);
     
+    @EntityGraph(attributePaths = "blogPost")
     @Query("SELECT m FROM Media m WHERE m.blogPost.id = :postId AND m.fileType = :fileType")
     List<Media> findByBlogPostIdAndFileType(@Param("postId") Long postId, @Param("fileType") String fileType);
     
-    Optional<Media> findByFileName(String fileName);
+    Optional<Media> findFirstByFileName(String fileName);
+
+    Optional<Media> findFirstByContentHash(String contentHash);
+
+    Optional<Media> findFirstByContentHashAndStatus(String contentHash, MediaStatus status);
+
+    long countByFileName(String fileName);
     
-    @Query("SELECT m FROM Media m WHERE m.fileType = 'image' AND m.status = 'READY' ORDER BY m.uploadedAt DESC")
-    List<Media> findRecentImages();
+    @Query(SUMMARY_SELECT + " WHERE m.fileType = 'image' AND m.status = 'READY' ORDER BY m.uploadedAt DESC, m.id DESC")
+    List<MediaSummary> findRecentImages(Limit limit);
     
-    @Query("SELECT m FROM Media m WHERE m.fileType = 'video' AND m.status = 'READY' ORDER BY m.uploadedAt DESC")
-    List<Media> findRecentVideos();
+    @Query(SUMMARY_SELECT + " WHERE m.fileType = 'video' AND m.status = 'READY' ORDER BY m.uploadedAt DESC, m.id DESC")
+    List<MediaSummary> findRecentVideos(Limit limit);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Media m SET m.status = :status, m.width = :width, m.height = :height,"
+            + " m.thumbnailPath = :thumbnailPath, m.updatedAt = :updatedAt WHERE m.id = :id")
+    int completeProcessing(@Param("id") Long id,
+                           @Param("status") MediaStatus status,
+                           @Param("width") Integer width,
+                           @Param("height") Integer height,
+                           @Param("thumbnailPath") String thumbnailPath,
+                           @Param("updatedAt") LocalDateTime updatedAt);
 }
@@ -8,4 +8,6 @@ import com.sasken.Model.PostStatusHistory;
 
 public interface PostStatusHistoryRepository extends JpaRepository<PostStatusHistory, Long> {
     List<PostStatusHistory> findByPostId(Long postId);
+
+    List<PostStatusHistory> findByPostIdOrderByChangedAtAsc(Long postId);
 }
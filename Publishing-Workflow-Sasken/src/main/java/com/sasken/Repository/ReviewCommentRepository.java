@@ -1,11 +1,26 @@
 package com.sasken.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.sasken.Model.ReviewComment;
 
 public interface ReviewCommentRepository extends JpaRepository<ReviewComment, Long> {
-    List<ReviewComment> findByPostId(Long postId);
+
+    @Query("SELECT c FROM ReviewComment c WHERE c.postId = :postId"
+            + " ORDER BY c.commentedAt ASC, c.id ASC")
+    List<ReviewComment> findFirstPage(@Param("postId") Long postId, Limit limit);
+
+    @Query("SELECT c FROM ReviewComment c WHERE c.postId = :postId"
+            + " AND (c.commentedAt > :commentedAt OR (c.commentedAt = :commentedAt AND c.id > :id))"
+            + " ORDER BY c.commentedAt ASC, c.id ASC")
+    List<ReviewComment> findPageAfter(@Param("postId") Long postId,
+                                      @Param("commentedAt") LocalDateTime commentedAt,
+                                      @Param("id") Long id,
+                                      Limit limit);
 }
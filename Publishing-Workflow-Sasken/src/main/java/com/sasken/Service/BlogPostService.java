@@ -1,83 +1,465 @@
 package com.sasken.Service;
 
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.sasken.Model.AutosaveRequest;
 import com.sasken.Model.BlogPost;
+import com.sasken.Model.BlogPostPatch;
+import com.sasken.Model.BlogPostSummary;
+import com.sasken.Model.KeysetCursor;
 import com.sasken.Model.PostStatus;
+import com.sasken.Model.PostStatusHistory;
+import com.sasken.Model.SearchHit;
+import com.sasken.Model.StatusChangeRequest;
+import com.sasken.Model.StatusChangeResult;
+import com.sasken.Model.TextEdit;
 import com.sasken.Repository.BlogPostRepository;
 
+import io.micrometer.core.annotation.Timed;
 import jakarta.persistence.EntityNotFoundException;
 
 @Service
+@Timed("blogcraft.posts")
 public class BlogPostService {
 
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+
+    // Same compare-and-set as BlogPostRepository.compareAndSetStatus, for JDBC batches
+    private static final String COMPARE_AND_SET_SQL = "UPDATE blog_post SET status = ?, updated_at = ?,"
+            + " version = version + 1 WHERE id = ? AND status = ?";
+
+    private static final Map<PostStatus, Set<PostStatus>> PREDECESSORS = new EnumMap<>(PostStatus.class);
+
+    static {
+        for (PostStatus next : PostStatus.values()) {
+            Set<PostStatus> from = EnumSet.noneOf(PostStatus.class);
+            for (PostStatus current : PostStatus.values()) {
+                if (isValidTransition(current, next)) {
+                    from.add(current);
+                }
+            }
+            PREDECESSORS.put(next, from);
+        }
+    }
+
     @Autowired
     private BlogPostRepository blogPostRepo;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BlogStatsService statsService;
+
+    @Autowired
+    private AsyncCache<Long, BlogPost> postCache;
+
+    @Autowired
+    private StatusHistoryService historyService;
+
+    @Autowired
+    private SearchIndexService searchIndex;
+
+    @Autowired
+    private EventStreamService events;
+
+    @Autowired
+    private SnapshotService snapshots;
+
     public BlogPost createDraft(BlogPost post) {
         post.setStatus(PostStatus.DRAFT);
         post.setCreatedAt(LocalDateTime.now());
         post.setUpdatedAt(LocalDateTime.now());
+        post.setCommentCount(0L);
+        post.setVersion(null);
         // Ensure authorName is not null
         if (post.getAuthorName() == null || post.getAuthorName().trim().isEmpty()) {
             post.setAuthorName("Anonymous");
         }
-        return blogPostRepo.save(post);
+        BlogPost saved = blogPostRepo.save(post);
+        statsService.recordCreated(PostStatus.DRAFT);
+        searchIndex.index(saved);
+
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("postId", saved.getId());
+        event.put("title", saved.getTitle());
+        event.put("status", saved.getStatus());
+        event.put("authorId", saved.getAuthorId());
+        event.put("authorName", saved.getAuthorName());
+        events.publish(EventStreamService.POST_CREATED, event);
+        return saved;
     }
 
     public BlogPost changeStatus(Long postId, PostStatus newStatus, Long userId) {
-        BlogPost post = blogPostRepo.findById(postId)
-                .orElseThrow(() -> new EntityNotFoundException("Post not found"));
+        PostStatus previousStatus = transition(postId, newStatus, LocalDateTime.now());
+        postCache.synchronous().invalidate(postId);
+        statsService.recordTransition(previousStatus, newStatus);
+        historyService.record(postId, previousStatus, newStatus, userId);
+        searchIndex.updateStatus(postId, newStatus);
+        publishStatusChange(postId, previousStatus, newStatus, userId);
+        updateSnapshot(postId, previousStatus, newStatus);
+        return getPost(postId);
+    }
+
+    /**
+     * Applies a list of status changes in one transaction. Current statuses
+     * are read with one IN query, every accepted item becomes a conditional
+     * UPDATE in a single JDBC batch, and only the items whose UPDATE matched
+     * no row are read again to report what they lost to. An invalid or lost
+     * transition is reported in its result without failing the rest.
+     */
+    @Transactional
+    public List<StatusChangeResult> changeStatuses(List<StatusChangeRequest> changes, Long userId) {
+        Set<Long> ids = new HashSet<>();
+        for (StatusChangeRequest change : changes) {
+            if (change.getPostId() != null) {
+                ids.add(change.getPostId());
+            }
+        }
+        // Tracks each post through the batch, so later items for the same
+        // post are checked against the status the earlier ones leave it in
+        Map<Long, PostStatus> statuses = new HashMap<>();
+        if (!ids.isEmpty()) {
+            for (BlogPostRepository.IdAndStatus row : blogPostRepo.findStatusesByIdIn(ids)) {
+                statuses.put(row.getId(), row.getStatus());
+            }
+        }
+
+        StatusChangeResult[] results = new StatusChangeResult[changes.size()];
+        List<Integer> accepted = new ArrayList<>();
+        for (int i = 0; i < changes.size(); i++) {
+            StatusChangeRequest change = changes.get(i);
+            PostStatus current = change.getPostId() == null ? null : statuses.get(change.getPostId());
+            if (current == null || change.getStatus() == null || !isValidTransition(current, change.getStatus())) {
+                results[i] = rejected(change, current);
+                continue;
+            }
+            statuses.put(change.getPostId(), change.getStatus());
+            results[i] = StatusChangeResult.builder()
+                    .postId(change.getPostId())
+                    .previousStatus(current)
+                    .status(change.getStatus())
+                    .success(true)
+                    .build();
+            accepted.add(i);
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int[][] counts = accepted.isEmpty() ? new int[0][]
+                : jdbcTemplate.batchUpdate(COMPARE_AND_SET_SQL, accepted, accepted.size(), (ps, i) -> {
+                    ps.setString(1, results[i].getStatus().name());
+                    ps.setTimestamp(2, now);
+                    ps.setLong(3, results[i].getPostId());
+                    ps.setString(4, results[i].getPreviousStatus().name());
+                });
+
+        // An UPDATE that matched nothing lost to a concurrent change. Drivers
+        // that rewrite batches may report SUCCESS_NO_INFO, which counts as applied.
+        List<Integer> lost = new ArrayList<>();
+        int item = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                if (count == 0) {
+                    lost.add(accepted.get(item));
+                }
+                item++;
+            }
+        }
+        if (!lost.isEmpty()) {
+            Set<Long> lostIds = new HashSet<>();
+            lost.forEach(i -> lostIds.add(results[i].getPostId()));
+            Map<Long, PostStatus> actual = new HashMap<>();
+            for (BlogPostRepository.IdAndStatus row : blogPostRepo.findStatusesByIdIn(lostIds)) {
+                actual.put(row.getId(), row.getStatus());
+            }
+            for (int i : lost) {
+                results[i] = rejected(changes.get(i), actual.get(results[i].getPostId()));
+            }
+        }
+
+        List<StatusChangeResult> applied = new ArrayList<>();
+        for (StatusChangeResult result : results) {
+            if (result.isSuccess()) {
+                applied.add(result);
+            }
+        }
+
+        // Only publish the changes once they are committed
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                for (StatusChangeResult result : applied) {
+                    postCache.synchronous().invalidate(result.getPostId());
+                    statsService.recordTransition(result.getPreviousStatus(), result.getStatus());
+                    historyService.record(result.getPostId(), result.getPreviousStatus(), result.getStatus(), userId);
+                    searchIndex.updateStatus(result.getPostId(), result.getStatus());
+                    publishStatusChange(result.getPostId(), result.getPreviousStatus(), result.getStatus(), userId);
+                    updateSnapshot(result.getPostId(), result.getPreviousStatus(), result.getStatus());
+                }
+            }
+        });
+        return Arrays.asList(results);
+    }
+
+    private static StatusChangeResult rejected(StatusChangeRequest change, PostStatus currentStatus) {
+        return StatusChangeResult.builder()
+                .postId(change.getPostId())
+                .previousStatus(currentStatus)
+                .status(change.getStatus())
+                .error(currentStatus == null
+                        ? "Post not found"
+                        : "Invalid status transition from " + currentStatus + " to " + change.getStatus())
+                .build();
+    }
+
+    private void publishStatusChange(Long postId, PostStatus previousStatus, PostStatus status, Long userId) {
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("postId", postId);
+        event.put("previousStatus", previousStatus);
+        event.put("status", status);
+        event.put("changedBy", userId);
+        events.publish(EventStreamService.STATUS_CHANGED, event);
+    }
 
-        PostStatus currentStatus = post.getStatus();
+    // Snapshots are written on publish and dropped when a post leaves PUBLISHED
+    private void updateSnapshot(Long postId, PostStatus previousStatus, PostStatus status) {
+        if (status == PostStatus.PUBLISHED) {
+            try {
+                snapshots.update(getPost(postId));
+            } catch (EntityNotFoundException e) {
+                // Deleted since the transition
+            }
+        } else if (previousStatus == PostStatus.PUBLISHED) {
+            snapshots.remove(postId);
+        }
+    }
 
-        if (isValidTransition(currentStatus, newStatus)) {
-            post.setStatus(newStatus);
-            post.setUpdatedAt(LocalDateTime.now());
-            return blogPostRepo.save(post);
-        } else {
-            throw new IllegalStateException("Invalid status transition from " + currentStatus + " to " + newStatus);
+    /**
+     * Moves a post to {@code next} and returns the status it moved from.
+     * Each status that leads to {@code next} gets one conditional UPDATE,
+     * and the first that changes a row names the status the post left.
+     * Throws EntityNotFoundException if the post is missing and
+     * IllegalStateException if its status does not allow the transition.
+     */
+    private PostStatus transition(Long postId, PostStatus next, LocalDateTime now) {
+        for (PostStatus previous : PREDECESSORS.get(next)) {
+            if (blogPostRepo.compareAndSetStatus(postId, EnumSet.of(previous), next, now) == 1) {
+                return previous;
+            }
         }
+        PostStatus current = blogPostRepo.findStatusById(postId)
+                .orElseThrow(() -> new EntityNotFoundException("Post not found"));
+        throw new IllegalStateException("Invalid status transition from " + current + " to " + next);
     }
 
-    private boolean isValidTransition(PostStatus current, PostStatus next) {
+    static boolean isValidTransition(PostStatus current, PostStatus next) {
     return (current == PostStatus.DRAFT && next == PostStatus.REVIEW) ||
            (current == PostStatus.REVIEW && (next == PostStatus.APPROVED || next == PostStatus.DRAFT)) ||
-           (current == PostStatus.APPROVED && (next == PostStatus.PUBLISHED || next == PostStatus.REVIEW)); // <-- ADD THIS
+           (current == PostStatus.APPROVED && (next == PostStatus.PUBLISHED || next == PostStatus.REVIEW));
+    }
+
+    public static int pageSize(Integer limit) {
+        return limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+
+    public List<BlogPost> getPosts(PostStatus status, Long authorId, KeysetCursor after, Integer limit) {
+        int pageSize = pageSize(limit);
+        if (after == null) {
+            return blogPostRepo.findFirstPage(status, authorId, Limit.of(pageSize));
+        }
+        return blogPostRepo.findPageAfter(status, authorId, after.timestamp(), after.id(), Limit.of(pageSize));
+    }
+
+    public List<BlogPostSummary> getPostSummaries(PostStatus status, Long authorId, KeysetCursor after, Integer limit) {
+        int pageSize = pageSize(limit);
+        if (after == null) {
+            return blogPostRepo.findSummaryFirstPage(status, authorId, Limit.of(pageSize));
+        }
+        return blogPostRepo.findSummaryPageAfter(status, authorId, after.timestamp(), after.id(), Limit.of(pageSize));
     }
 
+    public List<SearchHit> search(String query, PostStatus status, Integer limit) {
+        return searchIndex.search(query, status, limit);
+    }
 
-    public List<BlogPost> getAllPosts() {
-        return blogPostRepo.findAll();
+    public List<PostStatusHistory> getHistory(Long postId) {
+        return historyService.getHistory(postId);
     }
 
+    /**
+     * Returns the post from the cache, loading it on a miss. Every caller
+     * gets the same detached instance, so it is read-only: change a post
+     * through this service, never through the returned object.
+     */
     public BlogPost getPost(Long postId) {
-        return blogPostRepo.findById(postId)
-                .orElseThrow(() -> new EntityNotFoundException("Post not found"));
+        // The first caller to miss loads on its own thread, outside the cache's
+        // lock; concurrent callers for the same post wait on its future
+        CompletableFuture<BlogPost> loading = new CompletableFuture<>();
+        CompletableFuture<BlogPost> cached = postCache.get(postId, (id, executor) -> loading);
+        if (cached == loading) {
+            // Whatever goes wrong, the future must complete or every later
+            // caller for this post would wait on it forever
+            try {
+                loading.complete(blogPostRepo.findById(postId).orElse(null));
+            } catch (Throwable e) {
+                loading.completeExceptionally(e);
+                throw e;
+            }
+        }
+
+        BlogPost post;
+        try {
+            post = cached.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+        if (post == null) {
+            throw new EntityNotFoundException("Post not found");
+        }
+        return post;
     }
 
     public void deletePost(Long postId) {
+        PostStatus status = blogPostRepo.findStatusById(postId).orElse(null);
         blogPostRepo.deleteById(postId);
+        postCache.synchronous().invalidate(postId);
+        snapshots.delete(postId);
+        searchIndex.remove(postId);
+        if (status != null) {
+            statsService.recordDeleted(status);
+            events.publish(EventStreamService.POST_DELETED, Map.of("postId", postId, "status", status));
+        }
     }
 
-    public BlogPost updatePost(Long postId, BlogPost updatedPost) {
-    BlogPost existing = blogPostRepo.findById(postId)
-            .orElseThrow(() -> new EntityNotFoundException("Post not found"));
+    /**
+     * Replaces the title and content of a post. When {@code expectedVersion}
+     * is given the update only applies to that version of the post.
+     */
+    @Transactional
+    public BlogPost updatePost(Long postId, BlogPost updatedPost, Long expectedVersion) {
+        BlogPost existing = loadForUpdate(postId, expectedVersion);
 
-    existing.setTitle(updatedPost.getTitle());
-    existing.setContent(updatedPost.getContent());
-    // Update author name if provided
-    if (updatedPost.getAuthorName() != null && !updatedPost.getAuthorName().trim().isEmpty()) {
-        existing.setAuthorName(updatedPost.getAuthorName());
+        existing.setTitle(updatedPost.getTitle());
+        existing.setContent(updatedPost.getContent());
+        // Update author name if provided
+        if (updatedPost.getAuthorName() != null && !updatedPost.getAuthorName().trim().isEmpty()) {
+            existing.setAuthorName(updatedPost.getAuthorName());
+        }
+        return saveEdit(existing);
     }
-    existing.setUpdatedAt(LocalDateTime.now());
 
-    return blogPostRepo.save(existing);
-}
+    /**
+     * Applies only the fields present in {@code patch}. With dynamic updates
+     * the UPDATE statement names just the columns that actually changed.
+     */
+    @Transactional
+    public BlogPost patchPost(Long postId, BlogPostPatch patch, Long expectedVersion) {
+        BlogPost existing = loadForUpdate(postId, expectedVersion);
 
+        if (patch.getTitle() != null) {
+            existing.setTitle(patch.getTitle());
+        }
+        if (patch.getContent() != null) {
+            existing.setContent(patch.getContent());
+        }
+        if (patch.getRichContent() != null) {
+            existing.setRichContent(patch.getRichContent());
+        }
+        if (patch.getAuthorName() != null && !patch.getAuthorName().trim().isEmpty()) {
+            existing.setAuthorName(patch.getAuthorName());
+        }
+        return saveEdit(existing);
+    }
+
+    /**
+     * Applies editor deltas against the version the client last saved, so
+     * an autosave only carries what changed since then.
+     */
+    @Transactional
+    public BlogPost autosave(Long postId, AutosaveRequest request) {
+        if (request.getBaseVersion() == null) {
+            throw new IllegalArgumentException("Base version is required");
+        }
+        BlogPost existing = loadForUpdate(postId, request.getBaseVersion());
+
+        if (request.getTitle() != null) {
+            existing.setTitle(request.getTitle());
+        }
+        if (request.getContentEdits() != null) {
+            existing.setContent(applyEdits(existing.getContent(), request.getContentEdits()));
+        }
+        if (request.getRichContentEdits() != null) {
+            existing.setRichContent(applyEdits(existing.getRichContent(), request.getRichContentEdits()));
+        }
+        return saveEdit(existing);
+    }
+
+    private static String applyEdits(String text, List<TextEdit> edits) {
+        StringBuilder result = new StringBuilder(text != null ? text : "");
+        for (TextEdit edit : edits) {
+            // Compared without adding, so a huge deleteCount cannot overflow past the check
+            if (edit.getOffset() < 0 || edit.getDeleteCount() < 0
+                    || edit.getDeleteCount() > result.length() - edit.getOffset()) {
+                throw new IllegalArgumentException("Edit at " + edit.getOffset() + " is outside the text");
+            }
+            result.replace(edit.getOffset(), edit.getOffset() + edit.getDeleteCount(),
+                    edit.getInsert() != null ? edit.getInsert() : "");
+        }
+        return result.toString();
+    }
 
+    private BlogPost loadForUpdate(Long postId, Long expectedVersion) {
+        BlogPost existing = blogPostRepo.findById(postId)
+                .orElseThrow(() -> new EntityNotFoundException("Post not found"));
+        if (expectedVersion != null && !expectedVersion.equals(existing.getVersion())) {
+            throw new OptimisticLockingFailureException("Post " + postId + " is at version "
+                    + existing.getVersion() + ", not " + expectedVersion);
+        }
+        return existing;
+    }
+
+    private BlogPost saveEdit(BlogPost existing) {
+        existing.setUpdatedAt(LocalDateTime.now());
+        // Flush here so a concurrent edit surfaces as a translated exception
+        // from the repository rather than at commit
+        BlogPost saved = blogPostRepo.saveAndFlush(existing);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                postCache.synchronous().invalidate(saved.getId());
+                searchIndex.index(saved);
+                if (saved.getStatus() == PostStatus.PUBLISHED) {
+                    snapshots.update(saved);
+                }
+            }
+        });
+        return saved;
+    }
 }
@@ -0,0 +1,98 @@
+package com.sasken.Service;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.sasken.Model.PostStatus;
+import com.sasken.Repository.BlogPostRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps live per-status post counters so stats never have to scan the
+ * blog_post table. BlogPostService reports every create, transition and
+ * delete; a scheduled GROUP BY query corrects any drift. Every change is
+ * also published as a stats-delta event keyed by status.
+ */
+@Service
+@Slf4j
+public class BlogStatsService {
+
+    @Autowired
+    private BlogPostRepository blogPostRepo;
+
+    @Autowired
+    private EventStreamService events;
+
+    private final Map<PostStatus, AtomicLong> counters = new EnumMap<>(PostStatus.class);
+
+    public BlogStatsService() {
+        for (PostStatus status : PostStatus.values()) {
+            counters.put(status, new AtomicLong());
+        }
+    }
+
+    public void recordCreated(PostStatus status) {
+        counters.get(status).incrementAndGet();
+        events.publish(EventStreamService.STATS_DELTA, Map.of(status, 1L));
+    }
+
+    public void recordTransition(PostStatus from, PostStatus to) {
+        counters.get(from).decrementAndGet();
+        counters.get(to).incrementAndGet();
+        events.publish(EventStreamService.STATS_DELTA, Map.of(from, -1L, to, 1L));
+    }
+
+    public void recordDeleted(PostStatus status) {
+        counters.get(status).decrementAndGet();
+        events.publish(EventStreamService.STATS_DELTA, Map.of(status, -1L));
+    }
+
+    public long getCount(PostStatus status) {
+        return Math.max(0, counters.get(status).get());
+    }
+
+    public long getTotal() {
+        long total = 0;
+        for (PostStatus status : PostStatus.values()) {
+            total += getCount(status);
+        }
+        return total;
+    }
+
+    /**
+     * Replaces each counter with the table's count. A counter that changed
+     * while the query ran is left alone: the query may or may not have seen
+     * that change, so the next run corrects it instead.
+     */
+    @Scheduled(fixedDelayString = "${app.stats.reconcile-interval:60000}")
+    public void reconcile() {
+        Map<PostStatus, Long> before = new EnumMap<>(PostStatus.class);
+        for (PostStatus status : PostStatus.values()) {
+            before.put(status, counters.get(status).get());
+        }
+        Map<PostStatus, Long> fresh = new EnumMap<>(PostStatus.class);
+        for (BlogPostRepository.StatusCount row : blogPostRepo.countGroupedByStatus()) {
+            if (row.getStatus() != null) {
+                fresh.put(row.getStatus(), row.getTotal());
+            }
+        }
+        Map<PostStatus, Long> delta = new EnumMap<>(PostStatus.class);
+        for (PostStatus status : PostStatus.values()) {
+            long actual = fresh.getOrDefault(status, 0L);
+            long previous = before.get(status);
+            if (previous != actual && counters.get(status).compareAndSet(previous, actual)) {
+                log.debug("Reconciled {} count from {} to {}", status, previous, actual);
+                delta.put(status, actual - previous);
+            }
+        }
+        if (!delta.isEmpty()) {
+            events.publish(EventStreamService.STATS_DELTA, delta);
+        }
+    }
+}
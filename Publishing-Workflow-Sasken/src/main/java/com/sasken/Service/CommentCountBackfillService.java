@@ -0,0 +1,40 @@
+package com.sasken.Service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Fills {@code blog_post.comment_count} for posts that have never had it
+ * set, such as posts created before the column existed, by counting their
+ * review comments. Runs once per start before the web server accepts
+ * requests; rows that already have a count are left to the in-place
+ * increments of ReviewCommentService.
+ */
+@Service
+@Slf4j
+public class CommentCountBackfillService {
+
+    private static final String BACKFILL_SQL = "UPDATE blog_post SET comment_count ="
+            + " (SELECT COUNT(*) FROM review_comment c WHERE c.post_id = blog_post.id)"
+            + " WHERE comment_count IS NULL";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Only injected so the schema update has run before the backfill starts
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    public void backfillCommentCounts() {
+        int filled = jdbcTemplate.update(BACKFILL_SQL);
+        if (filled > 0) {
+            log.info("Filled the comment count of {} posts", filled);
+        }
+    }
+}
@@ -0,0 +1,358 @@
+package com.sasken.Service;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Fan-out of server-sent events to open /api/events streams.
+ *
+ * Streams are async requests, so no servlet thread is held per client.
+ * Each event is serialized once and offered to a bounded per-subscriber
+ * queue that a small shared pool drains. A subscriber whose queue
+ * overflows is disconnected rather than buffered without limit, and so is
+ * one whose write has been blocked for {@code app.events.write-timeout}; the
+ * browser reconnects with Last-Event-ID and catches up from the replay
+ * buffer, or gets a {@code resync} event when it has fallen too far behind.
+ *
+ * Event IDs carry an epoch unique to this process, so an ID from before a
+ * restart or from another instance is never mistaken for a position in
+ * this process's sequence; such clients are always told to resync.
+ *
+ * A write to a client that has stopped reading blocks its dispatch thread
+ * until the connector's own timeout fails it. While it is blocked the pool
+ * is given an extra thread, so other streams keep flowing.
+ */
+@Service
+@Slf4j
+public class EventStreamService {
+
+    public static final String POST_CREATED = "post-created";
+    public static final String STATUS_CHANGED = "status-changed";
+    public static final String POST_DELETED = "deleted";
+    public static final String MEDIA_READY = "media-ready";
+    public static final String STATS_DELTA = "stats-delta";
+    public static final String RESYNC = "resync";
+
+    // A null name marks a heartbeat comment
+    private record ServerEvent(long id, String name, String json) {
+    }
+
+    private static final ServerEvent HEARTBEAT = new ServerEvent(0, null, null);
+
+    private static final class Subscriber {
+        final SseEmitter emitter;
+        final BlockingQueue<ServerEvent> queue;
+        final AtomicBoolean draining = new AtomicBoolean();
+        final AtomicBoolean stalled = new AtomicBoolean();
+        volatile boolean closed;
+        volatile boolean disconnected;
+        // System.nanoTime() when the write in progress began, 0 between writes
+        volatile long writeStarted;
+
+        Subscriber(SseEmitter emitter, int capacity) {
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+        }
+    }
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    @Qualifier("eventDispatchExecutor")
+    private ThreadPoolTaskExecutor dispatchExecutor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.events.client-buffer:256}")
+    private int clientBuffer;
+
+    @Value("${app.events.replay-size:1000}")
+    private int replaySize;
+
+    @Value("${app.events.timeout:1800000}")
+    private long timeoutMillis;
+
+    @Value("${app.events.write-timeout:10000}")
+    private long writeTimeoutMillis;
+
+    // Extra dispatch threads lent to stalled writes; past this, a blocked
+    // write keeps its thread until the connector's write timeout fails it
+    @Value("${app.events.max-stall-threads:4}")
+    private int maxStallThreads;
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    private int dispatchThreads;
+    private final AtomicInteger stalledWriters = new AtomicInteger();
+
+    // Guards the replay buffer and the event sequence, so a new subscriber
+    // sees every event exactly once: either replayed or fanned out live.
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ArrayDeque<ServerEvent> replay = new ArrayDeque<>();
+    private long lastId;
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    @PostConstruct
+    void registerMeters() {
+        dispatchThreads = dispatchExecutor.getCorePoolSize();
+        Gauge.builder("blogcraft.events.subscribers", subscribers, List::size)
+                .description("Open event streams")
+                .register(meterRegistry);
+        Gauge.builder("blogcraft.events.buffered", subscribers,
+                        list -> list.stream().mapToInt(subscriber -> subscriber.queue.size()).sum())
+                .description("Events queued for subscribers but not yet written")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Opens a stream. {@code lastEventId} is the Last-Event-ID the browser
+     * sent when reconnecting, or null for a fresh stream.
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, clientBuffer);
+        emitter.onCompletion(() -> close(subscriber));
+        emitter.onTimeout(() -> close(subscriber));
+        emitter.onError(e -> close(subscriber));
+
+        lock.lock();
+        try {
+            if (lastEventId != null) {
+                long resumeAfter = sequenceOf(lastEventId);
+                if (resumeAfter != lastId) {
+                    // Unknown IDs parse to -1, so they always take the resync path
+                    ServerEvent oldest = replay.peekFirst();
+                    boolean complete = resumeAfter >= 0 && resumeAfter < lastId
+                            && oldest != null && oldest.id() <= resumeAfter + 1;
+                    if (complete && lastId - resumeAfter <= clientBuffer) {
+                        for (ServerEvent event : replay) {
+                            if (event.id() > resumeAfter) {
+                                subscriber.queue.offer(event);
+                            }
+                        }
+                    } else {
+                        subscriber.queue.offer(new ServerEvent(lastId, RESYNC, "{}"));
+                    }
+                }
+            }
+            subscribers.add(subscriber);
+        } finally {
+            lock.unlock();
+        }
+        scheduleDrain(subscriber);
+        return emitter;
+    }
+
+    public void publish(String name, Object data) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(data);
+        } catch (JsonProcessingException e) {
+            log.error("Could not serialize {} event: {}", name, e.getMessage());
+            return;
+        }
+
+        lock.lock();
+        try {
+            ServerEvent event = new ServerEvent(++lastId, name, json);
+            replay.addLast(event);
+            if (replay.size() > replaySize) {
+                replay.removeFirst();
+            }
+            for (Subscriber subscriber : subscribers) {
+                enqueue(subscriber, event);
+            }
+        } finally {
+            lock.unlock();
+        }
+        for (Subscriber subscriber : subscribers) {
+            scheduleDrain(subscriber);
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    /** Keeps idle streams open through proxies and detects dead connections. */
+    @Scheduled(fixedDelayString = "${app.events.heartbeat-interval:15000}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            enqueue(subscriber, HEARTBEAT);
+            scheduleDrain(subscriber);
+        }
+    }
+
+    /**
+     * Disconnects subscribers whose current write has been blocked longer
+     * than the write timeout, and lends the pool a thread for each, up to
+     * {@code app.events.max-stall-threads}, until the write returns.
+     */
+    @Scheduled(fixedDelayString = "${app.events.stall-check-interval:1000}")
+    public void disconnectStalledWriters() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            long started = subscriber.writeStarted;
+            if (started == 0 || now - started < TimeUnit.MILLISECONDS.toNanos(writeTimeoutMillis)
+                    || !subscriber.stalled.compareAndSet(false, true)) {
+                continue;
+            }
+            log.debug("Disconnecting event stream subscriber blocked on a write");
+            stalledWriters.incrementAndGet();
+            // The write may have returned in the meantime, after checking the flag
+            if (subscriber.writeStarted != started) {
+                releaseStall(subscriber);
+            }
+            resizeDispatchPool();
+            disconnect(subscriber);
+        }
+    }
+
+    /**
+     * Ends open streams as soon as shutdown begins; left open, they would
+     * hold up the web server's graceful shutdown until it times out.
+     */
+    @EventListener(ContextClosedEvent.class)
+    public void shutdown() {
+        for (Subscriber subscriber : subscribers) {
+            disconnect(subscriber);
+        }
+    }
+
+    // Position of an event ID in this process's sequence, or -1 when it was
+    // issued elsewhere or is not one of ours
+    private long sequenceOf(String eventId) {
+        int separator = eventId.lastIndexOf('-');
+        if (separator < 0 || !epoch.equals(eventId.substring(0, separator))) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(eventId.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private void enqueue(Subscriber subscriber, ServerEvent event) {
+        if (!subscriber.closed && !subscriber.queue.offer(event)) {
+            log.debug("Disconnecting slow event stream subscriber");
+            disconnect(subscriber);
+        }
+    }
+
+    private void close(Subscriber subscriber) {
+        subscriber.closed = true;
+        subscribers.remove(subscriber);
+    }
+
+    /**
+     * Stops sending to a subscriber and ends its stream. The emitter holds
+     * its monitor for the length of a write, so completing it here could
+     * block the caller behind a stalled client; when a drain is running it
+     * completes the emitter itself once its write returns.
+     */
+    private void disconnect(Subscriber subscriber) {
+        close(subscriber);
+        subscriber.queue.clear();
+        subscriber.disconnected = true;
+        completeIfIdle(subscriber);
+    }
+
+    // Whoever takes the draining flag here owns the emitter, and keeps the
+    // flag so no drain runs afterwards
+    private void completeIfIdle(Subscriber subscriber) {
+        if (subscriber.disconnected && subscriber.draining.compareAndSet(false, true)) {
+            subscriber.emitter.complete();
+        }
+    }
+
+    private void releaseStall(Subscriber subscriber) {
+        if (subscriber.stalled.getAndSet(false)) {
+            stalledWriters.decrementAndGet();
+            resizeDispatchPool();
+        }
+    }
+
+    private synchronized void resizeDispatchPool() {
+        int size = dispatchThreads + Math.min(Math.max(stalledWriters.get(), 0), maxStallThreads);
+        // The core size may never exceed the maximum, so order the two updates
+        if (size > dispatchExecutor.getMaxPoolSize()) {
+            dispatchExecutor.setMaxPoolSize(size);
+            dispatchExecutor.setCorePoolSize(size);
+        } else {
+            dispatchExecutor.setCorePoolSize(size);
+            dispatchExecutor.setMaxPoolSize(size);
+        }
+    }
+
+    private void scheduleDrain(Subscriber subscriber) {
+        if (subscriber.closed || subscriber.queue.isEmpty() || !subscriber.draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            dispatchExecutor.execute(() -> drain(subscriber));
+        } catch (RejectedExecutionException e) {
+            subscriber.draining.set(false);
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            ServerEvent event;
+            while (!subscriber.closed && (event = subscriber.queue.poll()) != null) {
+                subscriber.writeStarted = System.nanoTime();
+                try {
+                    if (event.name() == null) {
+                        subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+                    } else {
+                        subscriber.emitter.send(SseEmitter.event()
+                                .id(epoch + "-" + event.id())
+                                .name(event.name())
+                                .data(event.json()));
+                    }
+                } finally {
+                    subscriber.writeStarted = 0;
+                    releaseStall(subscriber);
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            // The client went away; the emitter callbacks finish the cleanup
+            close(subscriber);
+        } finally {
+            subscriber.draining.set(false);
+        }
+        completeIfIdle(subscriber);
+        // Pick up events offered after the last poll but before the flag was cleared
+        scheduleDrain(subscriber);
+    }
+}
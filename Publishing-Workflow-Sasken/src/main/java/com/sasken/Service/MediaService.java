@@ -1,171 +1,457 @@
 package com.sasken.Service;
 
+import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
-import org.springframework.web.multipart.MultipartFile;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.sasken.Config.MetricsConfig;
 import com.sasken.Model.BlogPost;
 import com.sasken.Model.Media;
 import com.sasken.Model.MediaStatus;
+import com.sasken.Model.MediaSummary;
 import com.sasken.Repository.MediaRepository;
 
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import net.coobird.thumbnailator.Thumbnails;
+import net.coobird.thumbnailator.util.exif.ExifFilterUtils;
+import net.coobird.thumbnailator.util.exif.ExifUtils;
+import net.coobird.thumbnailator.util.exif.Orientation;
 
 @Service
 @Slf4j
+@Timed("blogcraft.media")
 public class MediaService {
 
     @Autowired
     private MediaRepository mediaRepository;
 
+    @Autowired
+    private RenditionService renditionService;
+
+    @Autowired
+    private EventStreamService events;
+
+    @Autowired
+    @Qualifier("mediaProcessingExecutor")
+    private ThreadPoolTaskExecutor processingExecutor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Value("${app.upload.dir:uploads}")
     private String uploadDir;
 
     @Value("${app.upload.max-size:10485760}") // 10MB default
     private long maxFileSize;
 
-    private static final String[] ALLOWED_IMAGE_TYPES = {"image/jpeg", "image/png", "image/gif", "image/webp"};
-    private static final String[] ALLOWED_VIDEO_TYPES = {"video/mp4", "video/avi", "video/mov", "video/wmv", "video/flv"};
-    private static final String[] ALLOWED_DOCUMENT_TYPES = {"application/pdf", "application/msword", "application/vnd.openxmlformats-officedocument.wordprocessingml.document"};
+    private static final Pattern SAFE_EXTENSION = Pattern.compile("\\.[a-z0-9]{1,10}");
+
+    public static final int RECENT_MEDIA_LIMIT = 50;
+
+    private final Lock[] blobLocks = new Lock[64];
+
+    // Per-phase upload and processing latency
+    private Timer validateTimer;
+    private Timer copyTimer;
+    private Timer saveTimer;
+    private Timer dimensionsTimer;
+    private Timer thumbnailTimer;
+
+    private Counter uploadBytes;
+    private Counter thumbnailBytes;
+
+    public MediaService() {
+        for (int i = 0; i < blobLocks.length; i++) {
+            blobLocks[i] = new ReentrantLock();
+        }
+    }
+
+    @PostConstruct
+    void registerMeters() {
+        validateTimer = phaseTimer("validate");
+        copyTimer = phaseTimer("copy");
+        saveTimer = phaseTimer("save");
+        dimensionsTimer = phaseTimer("dimensions");
+        thumbnailTimer = phaseTimer("thumbnail");
+        uploadBytes = bytesWritten("upload");
+        thumbnailBytes = bytesWritten("thumbnail");
+    }
+
+    private Timer phaseTimer(String phase) {
+        return Timer.builder("blogcraft.media.upload.phase")
+                .description("Time spent in each phase of storing and processing an upload")
+                .tag("phase", phase)
+                .register(meterRegistry);
+    }
+
+    private Counter bytesWritten(String kind) {
+        return Counter.builder(MetricsConfig.MEDIA_BYTES_WRITTEN)
+                .baseUnit("bytes")
+                .tag("kind", kind)
+                .register(meterRegistry);
+    }
+
+    /**
+     * An upload streamed to a temporary file in the upload directory, waiting
+     * for {@link #completeUpload} to attach it to a post or
+     * {@link #discardUpload} to drop it.
+     */
+    public record StagedUpload(Path tempPath, String originalFileName, String mimeType, String fileType,
+            long size, String contentHash) {
+    }
 
-    public Media uploadMedia(MultipartFile file, BlogPost blogPost, String altText, String caption) throws IOException {
+    /**
+     * Streams an upload to a temporary file. The type is sniffed from the first
+     * bytes and the size limit enforced as bytes arrive, so a file that is not
+     * allowed is rejected before anything is written and an oversized one as
+     * soon as it crosses the limit.
+     */
+    public StagedUpload stageUpload(InputStream content, String originalFileName) throws IOException {
         // Validate file
-        validateFile(file);
-        
+        Timer.Sample phase = Timer.start();
+        byte[] header = content.readNBytes(MediaTypes.HEADER_LENGTH);
+        String mimeType = sniffType(header, originalFileName);
+
+        // Determine file type
+        String fileType = MediaTypes.FILE_TYPES.get(mimeType);
+        phase.stop(validateTimer);
+
+        // Refuse early rather than writing a file we cannot process
+        if (!"document".equals(fileType) && processingQueueFull()) {
+            throw new RejectedExecutionException("Media processing queue is full");
+        }
+
         // Create upload directory if it doesn't exist
         Path uploadPath = Paths.get(uploadDir);
         if (!Files.exists(uploadPath)) {
             Files.createDirectories(uploadPath);
         }
 
-        // Generate unique filename
-        String originalFileName = file.getOriginalFilename();
-        String fileExtension = getFileExtension(originalFileName);
-        String fileName = UUID.randomUUID().toString() + fileExtension;
-        
-        // Determine file type
-        String fileType = determineFileType(file.getContentType());
-        
-        // Save file
-        Path filePath = uploadPath.resolve(fileName);
-        Files.copy(file.getInputStream(), filePath);
-        
-        // Create media entity
-        Media media = Media.builder()
-                .fileName(fileName)
-                .originalFileName(originalFileName)
-                .filePath(filePath.toString())
-                .fileUrl("/media/" + fileName)
-                .fileType(fileType)
-                .mimeType(file.getContentType())
-                .fileSize(file.getSize())
-                .altText(altText)
-                .caption(caption)
-                .blogPost(blogPost)
-                .status(MediaStatus.UPLOADING)
-                .uploadedAt(LocalDateTime.now())
-                .updatedAt(LocalDateTime.now())
-                .build();
-
-        // Process media based on type
-        if ("image".equals(fileType)) {
-            processImage(media, filePath);
-        } else if ("video".equals(fileType)) {
-            processVideo(media, filePath);
+        // Stream to a temporary file, hashing the content on the way
+        Path tempPath = uploadPath.resolve(".upload-" + UUID.randomUUID());
+        MessageDigest digest = sha256();
+        long size = 0;
+        phase = Timer.start();
+        try (OutputStream out = Files.newOutputStream(tempPath, StandardOpenOption.CREATE_NEW)) {
+            // The sniffed header goes out first, then the rest of the stream
+            byte[] buffer = Arrays.copyOf(header, 8192);
+            int read = header.length;
+            while (read != -1) {
+                size += read;
+                if (size > maxFileSize) {
+                    throw new IOException("File size exceeds maximum allowed size");
+                }
+                digest.update(buffer, 0, read);
+                out.write(buffer, 0, read);
+                read = content.read(buffer);
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(tempPath);
+            throw e;
+        } finally {
+            phase.stop(copyTimer);
         }
 
-        media.setStatus(MediaStatus.READY);
-        return mediaRepository.save(media);
+        return new StagedUpload(tempPath, originalFileName, mimeType, fileType, size,
+                HexFormat.of().formatHex(digest.digest()));
     }
 
-    private void validateFile(MultipartFile file) throws IOException {
-        if (file.isEmpty()) {
-            throw new IOException("File is empty");
-        }
-        
-        if (file.getSize() > maxFileSize) {
-            throw new IOException("File size exceeds maximum allowed size");
-        }
-        
-        String contentType = file.getContentType();
-        boolean isValidType = false;
-        
-        for (String allowedType : ALLOWED_IMAGE_TYPES) {
-            if (allowedType.equals(contentType)) {
-                isValidType = true;
-                break;
+    /**
+     * Stores a staged upload as media of the given post and queues it for
+     * processing. The temporary file is moved into place or, for content
+     * already stored, removed.
+     */
+    public Media completeUpload(StagedUpload staged, BlogPost blogPost, String altText, String caption)
+            throws IOException {
+        Path uploadPath = staged.tempPath().getParent();
+        String contentHash = staged.contentHash();
+        boolean needsProcessing = !"document".equals(staged.fileType());
+
+        Lock blobLock = blobLock(contentHash);
+        blobLock.lock();
+        Media saved;
+        try {
+            // Identical content shares one stored blob and its thumbnail
+            Media existing = mediaRepository.findFirstByContentHash(contentHash).orElse(null);
+            String fileName;
+            Path filePath;
+            if (existing != null && Files.exists(Paths.get(existing.getFilePath()))) {
+                Files.delete(staged.tempPath());
+                fileName = existing.getFileName();
+                filePath = Paths.get(existing.getFilePath());
+            } else {
+                existing = null;
+                fileName = contentHash + getFileExtension(staged.originalFileName());
+                filePath = uploadPath.resolve(fileName);
+                Files.move(staged.tempPath(), filePath, StandardCopyOption.REPLACE_EXISTING);
+                // Only content that is kept counts; rejected and duplicate uploads never do
+                uploadBytes.increment(staged.size());
             }
-        }
-        
-        for (String allowedType : ALLOWED_VIDEO_TYPES) {
-            if (allowedType.equals(contentType)) {
-                isValidType = true;
-                break;
+
+            Media media = Media.builder()
+                    .fileName(fileName)
+                    .originalFileName(staged.originalFileName())
+                    .filePath(filePath.toString())
+                    .fileUrl("/media/" + fileName)
+                    .fileType(staged.fileType())
+                    .mimeType(staged.mimeType())
+                    .fileSize(staged.size())
+                    .contentHash(contentHash)
+                    .altText(altText)
+                    .caption(caption)
+                    .blogPost(blogPost)
+                    .status(needsProcessing ? MediaStatus.PROCESSING : MediaStatus.READY)
+                    .uploadedAt(LocalDateTime.now())
+                    .updatedAt(LocalDateTime.now())
+                    .build();
+
+            if (existing != null && existing.getStatus() == MediaStatus.READY) {
+                copyProcessingResults(existing, media);
             }
+            Timer.Sample phase = Timer.start();
+            saved = mediaRepository.save(media);
+            phase.stop(saveTimer);
+        } finally {
+            blobLock.unlock();
         }
-        
-        for (String allowedType : ALLOWED_DOCUMENT_TYPES) {
-            if (allowedType.equals(contentType)) {
-                isValidType = true;
-                break;
+
+        if (saved.getStatus() == MediaStatus.PROCESSING) {
+            try {
+                submitProcessing(saved.getId());
+            } catch (RejectedExecutionException e) {
+                removeMedia(saved);
+                throw e;
             }
         }
-        
-        if (!isValidType) {
-            throw new IOException("File type not allowed");
+        return saved;
+    }
+
+    /** Removes a staged upload's temporary file if it is still there. */
+    public void discardUpload(StagedUpload staged) {
+        try {
+            Files.deleteIfExists(staged.tempPath());
+        } catch (IOException e) {
+            log.warn("Could not remove staged upload {}: {}", staged.tempPath(), e.getMessage());
         }
     }
 
-    private String determineFileType(String contentType) {
-        for (String imageType : ALLOWED_IMAGE_TYPES) {
-            if (imageType.equals(contentType)) {
-                return "image";
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    // Serializes blob reuse against blob deletion for the same content; only
+    // guards a single instance sharing one upload directory.
+    private Lock blobLock(String contentHash) {
+        return blobLocks[Math.floorMod(contentHash.hashCode(), blobLocks.length)];
+    }
+
+    private static void copyProcessingResults(Media source, Media target) {
+        target.setWidth(source.getWidth());
+        target.setHeight(source.getHeight());
+        target.setThumbnailPath(source.getThumbnailPath());
+        target.setDuration(source.getDuration());
+        target.setStatus(MediaStatus.READY);
+    }
+
+    private boolean processingQueueFull() {
+        return processingExecutor.getActiveCount() >= processingExecutor.getMaxPoolSize()
+                && processingExecutor.getThreadPoolExecutor().getQueue().remainingCapacity() == 0;
+    }
+
+    private void submitProcessing(Long mediaId) {
+        processingExecutor.execute(() -> processMedia(mediaId));
+    }
+
+    private void processMedia(Long mediaId) {
+        Media media = mediaRepository.findById(mediaId).orElse(null);
+        if (media == null || media.getStatus() != MediaStatus.PROCESSING) {
+            return;
+        }
+
+        Lock blobLock = media.getContentHash() != null ? blobLock(media.getContentHash()) : null;
+        if (blobLock != null) {
+            blobLock.lock();
+        }
+        try {
+            // A duplicate may have been processed while this one was queued
+            Media processed = media.getContentHash() == null ? null
+                    : mediaRepository.findFirstByContentHashAndStatus(media.getContentHash(), MediaStatus.READY)
+                            .orElse(null);
+            if (processed != null) {
+                copyProcessingResults(processed, media);
+            } else {
+                Path filePath = Paths.get(media.getFilePath());
+                try {
+                    if ("image".equals(media.getFileType())) {
+                        processImage(media, filePath);
+                    } else if ("video".equals(media.getFileType())) {
+                        processVideo(media, filePath);
+                    }
+                } catch (Exception e) {
+                    log.error("Error processing media {}: {}", mediaId, e.getMessage());
+                    media.setStatus(MediaStatus.FAILED);
+                }
+            }
+        } finally {
+            if (blobLock != null) {
+                blobLock.unlock();
             }
         }
-        
-        for (String videoType : ALLOWED_VIDEO_TYPES) {
-            if (videoType.equals(contentType)) {
-                return "video";
+
+        if (media.getStatus() != MediaStatus.FAILED) {
+            media.setStatus(MediaStatus.READY);
+        }
+        // Only write the processing results so concurrent metadata edits survive
+        mediaRepository.completeProcessing(mediaId, media.getStatus(), media.getWidth(), media.getHeight(),
+                media.getThumbnailPath(), LocalDateTime.now());
+
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("mediaId", mediaId);
+        event.put("fileName", media.getFileName());
+        event.put("fileUrl", media.getFileUrl());
+        event.put("status", media.getStatus());
+        event.put("width", media.getWidth());
+        event.put("height", media.getHeight());
+        event.put("thumbnailPath", media.getThumbnailPath());
+        events.publish(EventStreamService.MEDIA_READY, event);
+    }
+
+    /**
+     * Re-queues media left in PROCESSING by a previous shutdown. Runs on its own
+     * thread and waits for queue space, so a large backlog neither blocks
+     * startup nor trips the upload backpressure.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumePendingProcessing() {
+        List<Media> pending = mediaRepository.findByStatus(MediaStatus.PROCESSING);
+        if (pending.isEmpty()) {
+            return;
+        }
+        log.info("Resuming processing of {} media files", pending.size());
+        Thread resumer = new Thread(() -> {
+            for (Media media : pending) {
+                while (true) {
+                    try {
+                        submitProcessing(media.getId());
+                        break;
+                    } catch (RejectedExecutionException e) {
+                        try {
+                            Thread.sleep(200);
+                        } catch (InterruptedException ie) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        }
+                    }
+                }
             }
+        }, "media-proc-resume");
+        resumer.setDaemon(true);
+        resumer.start();
+    }
+
+    String sniffType(byte[] header, String originalFileName) throws IOException {
+        if (header.length == 0) {
+            throw new IOException("File is empty");
         }
-        
-        return "document";
+        String mimeType = MediaTypes.sniff(header, header.length, originalFileName);
+        if (mimeType == null) {
+            throw new IOException("File type not allowed");
+        }
+        return mimeType;
     }
 
-    private void processImage(Media media, Path filePath) throws IOException {
-        try {
-            // Create thumbnail
-            Path thumbnailPath = Paths.get(uploadDir, "thumbnails");
-            if (!Files.exists(thumbnailPath)) {
-                Files.createDirectories(thumbnailPath);
+    void processImage(Media media, Path filePath) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(filePath.toFile())) {
+            Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+            if (readers == null || !readers.hasNext()) {
+                throw new IOException("Unsupported image format");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, false);
+
+                // Dimensions come from the image header, before any pixels are decoded
+                Timer.Sample phase = Timer.start();
+                media.setWidth(reader.getWidth(0));
+                media.setHeight(reader.getHeight(0));
+                phase.stop(dimensionsTimer);
+
+                // Decode once; every rendition is derived from this raster
+                phase = Timer.start();
+                BufferedImage image = reader.read(0);
+                // Only JPEG carries EXIF orientation; other readers reject the lookup
+                Orientation orientation = "jpeg".equalsIgnoreCase(reader.getFormatName())
+                        ? ExifUtils.getExifOrientation(reader, 0)
+                        : null;
+
+                // Create thumbnail
+                Path thumbnailPath = Paths.get(uploadDir, "thumbnails");
+                if (!Files.exists(thumbnailPath)) {
+                    Files.createDirectories(thumbnailPath);
+                }
+
+                String thumbnailFileName = "thumb_" + media.getFileName();
+                Path thumbnailFilePath = thumbnailPath.resolve(thumbnailFileName);
+
+                Thumbnails.Builder<BufferedImage> thumbnail = Thumbnails.of(image)
+                        .size(300, 300)
+                        .keepAspectRatio(true)
+                        .outputFormat(reader.getFormatName());
+                if (orientation != null) {
+                    thumbnail.addFilter(ExifFilterUtils.getFilterForOrientation(orientation));
+                }
+                thumbnail.toFile(thumbnailFilePath.toFile());
+                phase.stop(thumbnailTimer);
+                thumbnailBytes.increment(Files.size(thumbnailFilePath));
+
+                media.setThumbnailPath("/media/thumbnails/" + thumbnailFileName);
+            } finally {
+                reader.dispose();
             }
-            
-            String thumbnailFileName = "thumb_" + media.getFileName();
-            Path thumbnailFilePath = thumbnailPath.resolve(thumbnailFileName);
-            
-            Thumbnails.of(filePath.toFile())
-                    .size(300, 300)
-                    .keepAspectRatio(true)
-                    .toFile(thumbnailFilePath.toFile());
-            
-            media.setThumbnailPath("/media/thumbnails/" + thumbnailFileName);
-            
-            // Get image dimensions
-            java.awt.image.BufferedImage img = javax.imageio.ImageIO.read(filePath.toFile());
-            media.setWidth(img.getWidth());
-            media.setHeight(img.getHeight());
-            
         } catch (Exception e) {
             log.error("Error processing image: " + e.getMessage());
             media.setStatus(MediaStatus.FAILED);
@@ -183,44 +469,65 @@ public class MediaService {
         if (fileName == null || fileName.lastIndexOf(".") == -1) {
             return "";
         }
-        return fileName.substring(fileName.lastIndexOf("."));
+        String extension = fileName.substring(fileName.lastIndexOf(".")).toLowerCase();
+        return SAFE_EXTENSION.matcher(extension).matches() ? extension : "";
     }
 
-    public List<Media> getMediaByBlogPost(Long blogPostId) {
-        return mediaRepository.findByBlogPostId(blogPostId);
+    public List<MediaSummary> getMediaByBlogPost(Long blogPostId) {
+        return mediaRepository.findSummariesByBlogPostId(blogPostId);
     }
 
-    public List<Media> getRecentImages() {
-        return mediaRepository.findRecentImages();
+    public List<MediaSummary> getRecentImages() {
+        return mediaRepository.findRecentImages(Limit.of(RECENT_MEDIA_LIMIT));
     }
 
-    public List<Media> getRecentVideos() {
-        return mediaRepository.findRecentVideos();
+    public List<MediaSummary> getRecentVideos() {
+        return mediaRepository.findRecentVideos(Limit.of(RECENT_MEDIA_LIMIT));
     }
 
     public void deleteMedia(Long mediaId) throws IOException {
         Media media = mediaRepository.findById(mediaId)
                 .orElseThrow(() -> new IOException("Media not found"));
-        
-        // Delete physical file
-        Path filePath = Paths.get(media.getFilePath());
-        if (Files.exists(filePath)) {
-            Files.delete(filePath);
+
+        removeMedia(media);
+    }
+
+    private void removeMedia(Media media) throws IOException {
+        Lock blobLock = media.getContentHash() != null ? blobLock(media.getContentHash()) : null;
+        if (blobLock != null) {
+            blobLock.lock();
         }
-        
-        // Delete thumbnail if exists
-        if (media.getThumbnailPath() != null) {
-            Path thumbnailPath = Paths.get(uploadDir, "thumbnails", media.getFileName().replaceFirst("^", "thumb_"));
+        try {
+            mediaRepository.delete(media);
+
+            // The blob is shared by every row with the same content; keep it while any remain
+            if (mediaRepository.countByFileName(media.getFileName()) > 0) {
+                return;
+            }
+
+            // Delete physical file
+            Path filePath = Paths.get(media.getFilePath());
+            if (Files.exists(filePath)) {
+                Files.delete(filePath);
+            }
+
+            // Delete thumbnail if exists
+            Path thumbnailPath = Paths.get(uploadDir, "thumbnails", "thumb_" + media.getFileName());
             if (Files.exists(thumbnailPath)) {
                 Files.delete(thumbnailPath);
             }
+
+            renditionService.evict(media.getFileName());
+        } finally {
+            if (blobLock != null) {
+                blobLock.unlock();
+            }
         }
-        
-        mediaRepository.delete(media);
     }
 
+    @Transactional
     public Media updateMediaMetadata(Long mediaId, String altText, String caption) {
-        Media media = mediaRepository.findById(mediaId)
+        Media media = mediaRepository.findWithBlogPostById(mediaId)
                 .orElseThrow(() -> new RuntimeException("Media not found"));
         
         media.setAltText(altText);
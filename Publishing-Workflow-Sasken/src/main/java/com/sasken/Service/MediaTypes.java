@@ -0,0 +1,137 @@
+package com.sasken.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The media types accepted for upload and the file signatures that identify
+ * them. Uploads are classified from their first bytes, never from the
+ * Content-Type the client declares.
+ */
+final class MediaTypes {
+
+    /** Bytes of the upload needed to recognise every accepted type. */
+    static final int HEADER_LENGTH = 12;
+
+    static final String DOCX = "application/vnd.openxmlformats-officedocument.wordprocessingml.document";
+
+    /** Accepted MIME type to the file type stored with the media. */
+    static final Map<String, String> FILE_TYPES = Map.ofEntries(
+            Map.entry("image/jpeg", "image"),
+            Map.entry("image/png", "image"),
+            Map.entry("image/gif", "image"),
+            Map.entry("image/webp", "image"),
+            Map.entry("video/mp4", "video"),
+            Map.entry("video/avi", "video"),
+            Map.entry("video/mov", "video"),
+            Map.entry("video/wmv", "video"),
+            Map.entry("video/flv", "video"),
+            Map.entry("application/pdf", "document"),
+            Map.entry("application/msword", "document"),
+            Map.entry(DOCX, "document"));
+
+    private record Signature(byte[] prefix, int tagOffset, byte[] tag, String mimeType) {
+
+        boolean matches(byte[] header, int length) {
+            return startsWith(header, length, 0, prefix)
+                    && (tag == null || startsWith(header, length, tagOffset, tag));
+        }
+    }
+
+    // Indexed by first byte, so a header is only compared against the one or
+    // two signatures that can match it
+    private static final Signature[][] SIGNATURES = new Signature[256][];
+
+    static {
+        List<Signature> all = List.of(
+                signature(new byte[] {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF}, "image/jpeg"),
+                signature(new byte[] {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'}, "image/png"),
+                signature(ascii("GIF87a"), "image/gif"),
+                signature(ascii("GIF89a"), "image/gif"),
+                new Signature(ascii("RIFF"), 8, ascii("WEBP"), "image/webp"),
+                new Signature(ascii("RIFF"), 8, ascii("AVI "), "video/avi"),
+                signature(new byte[] {0x30, 0x26, (byte) 0xB2, 0x75, (byte) 0x8E, 0x66, (byte) 0xCF, 0x11}, "video/wmv"),
+                signature(new byte[] {'F', 'L', 'V', 0x01}, "video/flv"),
+                signature(ascii("%PDF-"), "application/pdf"),
+                signature(new byte[] {(byte) 0xD0, (byte) 0xCF, 0x11, (byte) 0xE0, (byte) 0xA1, (byte) 0xB1, 0x1A, (byte) 0xE1},
+                        "application/msword"),
+                signature(new byte[] {'P', 'K', 0x03, 0x04}, DOCX));
+
+        List<List<Signature>> byFirstByte = new ArrayList<>();
+        for (int i = 0; i < 256; i++) {
+            byFirstByte.add(new ArrayList<>());
+        }
+        for (Signature signature : all) {
+            byFirstByte.get(signature.prefix()[0] & 0xFF).add(signature);
+        }
+        for (int i = 0; i < 256; i++) {
+            SIGNATURES[i] = byFirstByte.get(i).toArray(Signature[]::new);
+        }
+    }
+
+    private static final byte[] FTYP = ascii("ftyp");
+    private static final String QUICKTIME_BRAND = "qt  ";
+
+    // Major brands of MP4 video. The same container also carries HEIC and
+    // AVIF images, M4A audio and 3GP, none of which are accepted as video.
+    private static final Set<String> MP4_BRANDS = Set.of(
+            "isom", "iso2", "iso4", "iso5", "iso6", "mp41", "mp42", "avc1", "mmp4", "dash", "M4V ", "M4VH", "M4VP");
+
+    private MediaTypes() {
+    }
+
+    /**
+     * Identifies an upload from its first bytes. A .docx file is a ZIP
+     * archive, so a ZIP is only accepted when its name says it is one.
+     *
+     * @return the accepted MIME type the bytes belong to, or null if they
+     *         match none
+     */
+    static String sniff(byte[] header, int length, String fileName) {
+        if (length == 0) {
+            return null;
+        }
+        for (Signature signature : SIGNATURES[header[0] & 0xFF]) {
+            if (signature.matches(header, length)) {
+                if (DOCX.equals(signature.mimeType())
+                        && (fileName == null || !fileName.toLowerCase().endsWith(".docx"))) {
+                    return null;
+                }
+                return signature.mimeType();
+            }
+        }
+        // MP4 and QuickTime start with a box length, then the "ftyp" box type
+        // and a major brand naming the format
+        if (startsWith(header, length, 4, FTYP) && length >= 12) {
+            String brand = new String(header, 8, 4, StandardCharsets.US_ASCII);
+            if (QUICKTIME_BRAND.equals(brand)) {
+                return "video/mov";
+            }
+            return MP4_BRANDS.contains(brand) ? "video/mp4" : null;
+        }
+        return null;
+    }
+
+    private static Signature signature(byte[] prefix, String mimeType) {
+        return new Signature(prefix, 0, null, mimeType);
+    }
+
+    private static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static boolean startsWith(byte[] header, int length, int offset, byte[] expected) {
+        if (length < offset + expected.length) {
+            return false;
+        }
+        for (int i = 0; i < expected.length; i++) {
+            if (header[offset + i] != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
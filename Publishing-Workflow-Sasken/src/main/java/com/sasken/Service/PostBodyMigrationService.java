@@ -0,0 +1,73 @@
+package com.sasken.Service;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import com.sasken.Model.BlogPost;
+import com.sasken.Model.DeflatedText;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Moves post bodies from the old plain {@code content}/{@code rich_content}
+ * columns into the deflated columns, filling the stored excerpt, and clears
+ * the old values. Runs once per start before the web server accepts
+ * requests; it is a no-op on schemas that never had the plain columns or
+ * once every row has been moved.
+ */
+@Service
+@Slf4j
+public class PostBodyMigrationService {
+
+    private static final int BATCH_SIZE = 200;
+
+    private static final String SELECT_SQL = "SELECT id, content, rich_content FROM blog_post"
+            + " WHERE content IS NOT NULL OR rich_content IS NOT NULL LIMIT " + BATCH_SIZE;
+
+    private static final String UPDATE_SQL = "UPDATE blog_post SET content_deflated = ?, rich_content_deflated = ?,"
+            + " excerpt = ?, content = NULL, rich_content = NULL WHERE id = ?";
+
+    private record LegacyBody(long id, String content, String richContent) {
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Only injected so the schema update has run before the migration starts
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    public void migrateLegacyBodies() {
+        try {
+            jdbcTemplate.queryForList("SELECT content, rich_content FROM blog_post WHERE 1 = 0");
+        } catch (BadSqlGrammarException e) {
+            return;
+        }
+
+        int migrated = 0;
+        List<LegacyBody> batch;
+        while (!(batch = jdbcTemplate.query(SELECT_SQL,
+                (rs, i) -> new LegacyBody(rs.getLong(1), rs.getString(2), rs.getString(3)))).isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_SQL, batch, batch.size(), (ps, body) -> {
+                DeflatedText content = DeflatedText.of(body.content());
+                DeflatedText richContent = DeflatedText.of(body.richContent());
+                ps.setBytes(1, content != null ? content.bytes() : null);
+                ps.setBytes(2, richContent != null ? richContent.bytes() : null);
+                ps.setString(3, BlogPost.excerptOf(body.content()));
+                ps.setLong(4, body.id());
+            });
+            migrated += batch.size();
+        }
+        if (migrated > 0) {
+            log.info("Compressed the bodies of {} posts; the content and rich_content columns of blog_post"
+                    + " are now unused and can be dropped", migrated);
+        }
+    }
+}
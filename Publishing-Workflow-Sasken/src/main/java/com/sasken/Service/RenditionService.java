@@ -0,0 +1,384 @@
+package com.sasken.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Service;
+
+import com.sasken.Config.MetricsConfig;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import net.coobird.thumbnailator.Thumbnails;
+
+/**
+ * Produces width-bounded renditions of uploaded images on first request.
+ * Requested widths snap to a fixed set of breakpoints so the cache stays
+ * small, concurrent requests for the same rendition share one resize, and
+ * the rendition directory is kept under a byte budget by evicting the least
+ * recently served files. A rendition being served is pinned and is not
+ * evicted until its lease is closed.
+ */
+@Service
+@Slf4j
+public class RenditionService {
+
+    public static final int[] BREAKPOINTS = {160, 320, 640, 960, 1280, 1920};
+
+    // Tries at a rendition that keeps being evicted or deleted under us
+    // before falling back to the original
+    private static final int MAX_ATTEMPTS = 3;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.upload.dir:uploads}")
+    private String uploadDir;
+
+    @Value("${app.media.renditions.max-bytes:536870912}") // 512MB default
+    private long maxBytes;
+
+    private final Map<String, CompletableFuture<Path>> inFlight = new ConcurrentHashMap<>();
+
+    // Access-ordered: iteration starts at the least recently served rendition
+    private final LinkedHashMap<String, Long> index = new LinkedHashMap<>(16, 0.75f, true);
+    private final ReentrantLock indexLock = new ReentrantLock();
+    private long totalBytes;
+
+    // Leases open per key; guarded by indexLock
+    private final Map<String, Integer> pins = new HashMap<>();
+
+    /**
+     * A file to serve. A rendition stays pinned against eviction until the
+     * lease is closed; leases on originals pin nothing.
+     */
+    public final class Lease implements AutoCloseable {
+
+        private final String key;
+        private final Path path;
+        private boolean closed;
+
+        private Lease(String key, Path path) {
+            this.key = key;
+            this.path = path;
+        }
+
+        public Path path() {
+            return path;
+        }
+
+        @Override
+        public void close() {
+            if (key != null && !closed) {
+                closed = true;
+                unpin(key);
+            }
+        }
+    }
+
+    @PostConstruct
+    void loadIndex() throws IOException {
+        Path root = renditionRoot();
+        if (!Files.exists(root)) {
+            return;
+        }
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(root)) {
+            files = walk.filter(Files::isRegularFile)
+                    .filter(path -> !path.getFileName().toString().startsWith(".tmp-"))
+                    .sorted(Comparator.comparing(RenditionService::lastModified))
+                    .toList();
+        }
+        indexLock.lock();
+        try {
+            for (Path file : files) {
+                long size = Files.size(file);
+                index.put(root.relativize(file).toString(), size);
+                totalBytes += size;
+            }
+            evictOverBudget(null);
+        } finally {
+            indexLock.unlock();
+        }
+    }
+
+    public static int snapWidth(int requested) {
+        for (int breakpoint : BREAKPOINTS) {
+            if (requested <= breakpoint) {
+                return breakpoint;
+            }
+        }
+        return BREAKPOINTS[BREAKPOINTS.length - 1];
+    }
+
+    /**
+     * Returns the file to serve for {@code fileName} at roughly {@code width}
+     * pixels wide: a cached or freshly generated rendition, or the original
+     * when it is already no wider than the breakpoint. Returns null if the
+     * source is missing or not an image. The caller must close the lease
+     * once the file has been served.
+     */
+    public Lease openRendition(String fileName, int width) throws IOException {
+        Path uploads = Paths.get(uploadDir).toAbsolutePath().normalize();
+        Path source = uploads.resolve(fileName).normalize();
+        if (!source.getParent().equals(uploads) || !Files.isRegularFile(source) || !isImage(fileName)) {
+            return null;
+        }
+
+        int snapped = snapWidth(width);
+        String key = snapped + "/" + fileName;
+        Path rendition = renditionRoot().resolve(key);
+
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            if (pin(key)) {
+                if (Files.exists(rendition)) {
+                    return new Lease(key, rendition);
+                }
+                unpin(key);
+            }
+            Path result = renderOnce(source, rendition, key, snapped);
+            if (result == null) {
+                return null;
+            }
+            if (!result.equals(rendition)) {
+                return new Lease(null, result);
+            }
+            // Pinned on the next pass, unless it was evicted in between
+        }
+        log.debug("Rendition {} was evicted before it could be served, serving the original", key);
+        return new Lease(null, source);
+    }
+
+    // Concurrent requests for the same rendition share one render
+    private Path renderOnce(Path source, Path rendition, String key, int width) throws IOException {
+        CompletableFuture<Path> future = new CompletableFuture<>();
+        CompletableFuture<Path> existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            return await(existing);
+        }
+        try {
+            future.complete(render(source, rendition, key, width));
+        } catch (IOException | RuntimeException e) {
+            future.completeExceptionally(e);
+        } finally {
+            inFlight.remove(key, future);
+        }
+        return await(future);
+    }
+
+    /**
+     * Drops every rendition of {@code fileName}; called when the source file
+     * is deleted.
+     */
+    public void evict(String fileName) {
+        indexLock.lock();
+        try {
+            for (int breakpoint : BREAKPOINTS) {
+                String key = breakpoint + "/" + fileName;
+                Long size = index.remove(key);
+                if (size != null) {
+                    totalBytes -= size;
+                }
+                deleteQuietly(renditionRoot().resolve(key));
+            }
+        } finally {
+            indexLock.unlock();
+        }
+    }
+
+    private Path render(Path source, Path rendition, String key, int width) throws IOException {
+        // Another request, or another instance sharing the directory, may have
+        // written this rendition already; make sure it counts against the budget.
+        // If it keeps vanishing while we look, write a fresh one.
+        for (int attempt = 0; attempt < MAX_ATTEMPTS && Files.exists(rendition); attempt++) {
+            try {
+                if (!touch(key)) {
+                    track(key, Files.size(rendition));
+                }
+                return rendition;
+            } catch (NoSuchFileException e) {
+                // Deleted since the check
+            }
+        }
+
+        ImageProbe probe = probe(source);
+        if (probe == null) {
+            return null;
+        }
+        if (probe.width() <= width) {
+            return source;
+        }
+
+        Files.createDirectories(rendition.getParent());
+        Path temp = rendition.resolveSibling(".tmp-" + UUID.randomUUID());
+        try {
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                Thumbnails.of(source.toFile())
+                        .width(width)
+                        .keepAspectRatio(true)
+                        .outputFormat(probe.formatName())
+                        .toOutputStream(out);
+            }
+            Files.move(temp, rendition, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+
+        long size = Files.size(rendition);
+        Counter.builder(MetricsConfig.MEDIA_BYTES_WRITTEN)
+                .baseUnit("bytes")
+                .tag("kind", "rendition")
+                .register(meterRegistry)
+                .increment(size);
+        // A rendition that cannot fit the budget on its own would be evicted
+        // at once; serve the original instead
+        if (size > maxBytes) {
+            deleteQuietly(rendition);
+            log.debug("Rendition {} ({} bytes) exceeds the budget, serving the original", key, size);
+            return source;
+        }
+        track(key, size);
+        return rendition;
+    }
+
+    private void track(String key, long size) {
+        indexLock.lock();
+        try {
+            Long previous = index.put(key, size);
+            totalBytes += size - (previous != null ? previous : 0);
+            evictOverBudget(key);
+        } finally {
+            indexLock.unlock();
+        }
+    }
+
+    // Pins key if it is indexed, marking it as just served
+    private boolean pin(String key) {
+        indexLock.lock();
+        try {
+            if (index.get(key) == null) {
+                return false;
+            }
+            pins.merge(key, 1, Integer::sum);
+            return true;
+        } finally {
+            indexLock.unlock();
+        }
+    }
+
+    private void unpin(String key) {
+        indexLock.lock();
+        try {
+            pins.computeIfPresent(key, (k, count) -> count > 1 ? count - 1 : null);
+        } finally {
+            indexLock.unlock();
+        }
+    }
+
+    private boolean touch(String key) {
+        indexLock.lock();
+        try {
+            return index.get(key) != null;
+        } finally {
+            indexLock.unlock();
+        }
+    }
+
+    // Caller holds indexLock; never evicts keep, the rendition about to be
+    // served, nor renditions pinned by an open lease
+    private void evictOverBudget(String keep) {
+        Iterator<Map.Entry<String, Long>> eldest = index.entrySet().iterator();
+        while (totalBytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<String, Long> entry = eldest.next();
+            if (entry.getKey().equals(keep) || pins.containsKey(entry.getKey())) {
+                continue;
+            }
+            eldest.remove();
+            totalBytes -= entry.getValue();
+            deleteQuietly(renditionRoot().resolve(entry.getKey()));
+            log.debug("Evicted rendition {} ({} bytes)", entry.getKey(), entry.getValue());
+        }
+    }
+
+    private Path renditionRoot() {
+        return Paths.get(uploadDir, "renditions").toAbsolutePath().normalize();
+    }
+
+    private static boolean isImage(String fileName) {
+        return MediaTypeFactory.getMediaType(fileName)
+                .map(type -> "image".equals(type.getType()))
+                .orElse(false);
+    }
+
+    private static Path await(CompletableFuture<Path> future) throws IOException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw e;
+        }
+    }
+
+    private static ImageProbe probe(Path source) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(source.toFile())) {
+            Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+            if (readers == null || !readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                return new ImageProbe(reader.getWidth(0), reader.getFormatName());
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static long lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete rendition {}: {}", path, e.getMessage());
+        }
+    }
+
+    private record ImageProbe(int width, String formatName) {
+    }
+}
@@ -0,0 +1,144 @@
+package com.sasken.Service;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.sasken.Model.BlogPost;
+import com.sasken.Model.KeysetCursor;
+import com.sasken.Model.ReviewComment;
+import com.sasken.Repository.BlogPostRepository;
+import com.sasken.Repository.ReviewCommentRepository;
+
+import jakarta.persistence.EntityNotFoundException;
+
+/**
+ * Review comments on posts. Comments are read oldest first in keyset pages
+ * over (commentedAt, id), and written in JDBC batches together with an
+ * in-place increment of the post's comment count, so list views can show
+ * counts without querying the comment table.
+ */
+@Service
+public class ReviewCommentService {
+
+    public static final int MAX_COMMENT_LENGTH = 1000;
+
+    private static final String INSERT_SQL =
+            "INSERT INTO review_comment (post_id, commenter_id, comment, commented_at) VALUES (?, ?, ?, ?)";
+
+    @Autowired
+    private ReviewCommentRepository commentRepo;
+
+    @Autowired
+    private BlogPostRepository blogPostRepo;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AsyncCache<Long, BlogPost> postCache;
+
+    @Autowired
+    private SnapshotService snapshots;
+
+    public List<ReviewComment> getComments(Long postId, KeysetCursor after, Integer limit) {
+        int pageSize = BlogPostService.pageSize(limit);
+        if (after == null) {
+            return commentRepo.findFirstPage(postId, Limit.of(pageSize));
+        }
+        return commentRepo.findPageAfter(postId, after.timestamp(), after.id(), Limit.of(pageSize));
+    }
+
+    @Transactional
+    public ReviewComment addComment(Long postId, Long commenterId, String text) {
+        ReviewComment comment = ReviewComment.builder().commenterId(commenterId).comment(text).build();
+        return addComments(postId, List.of(comment)).get(0);
+    }
+
+    /**
+     * Inserts all comments for one post in a single JDBC batch and bumps the
+     * post's comment count by the number inserted, all in one transaction.
+     */
+    @Transactional
+    public List<ReviewComment> addComments(Long postId, List<ReviewComment> comments) {
+        if (comments == null || comments.isEmpty()) {
+            throw new IllegalArgumentException("No comments to add");
+        }
+        for (ReviewComment comment : comments) {
+            String text = comment.getComment();
+            if (text == null || text.isBlank()) {
+                throw new IllegalArgumentException("Comment cannot be empty");
+            }
+            if (text.length() > MAX_COMMENT_LENGTH) {
+                throw new IllegalArgumentException("Comment exceeds " + MAX_COMMENT_LENGTH + " characters");
+            }
+            if (comment.getCommenterId() == null) {
+                throw new IllegalArgumentException("Commenter is required");
+            }
+        }
+
+        // Doubles as the existence check and locks the post row until commit
+        if (blogPostRepo.incrementCommentCount(postId, comments.size()) == 0) {
+            throw new EntityNotFoundException("Post not found");
+        }
+
+        // Truncated to the column precision so returned comments match what a cursor read sees
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        for (ReviewComment comment : comments) {
+            comment.setId(null);
+            comment.setPostId(postId);
+            comment.setCommentedAt(now);
+        }
+
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(con -> con.prepareStatement(INSERT_SQL, new String[] {"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        ReviewComment comment = comments.get(i);
+                        ps.setLong(1, postId);
+                        ps.setLong(2, comment.getCommenterId());
+                        ps.setString(3, comment.getComment());
+                        ps.setTimestamp(4, Timestamp.valueOf(now));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return comments.size();
+                    }
+                }, keys);
+
+        List<Map<String, Object>> keyList = keys.getKeyList();
+        for (int i = 0; i < comments.size() && i < keyList.size(); i++) {
+            // Drivers disagree on the key column label (ID vs GENERATED_KEY)
+            Object key = keyList.get(i).values().iterator().next();
+            comments.get(i).setId(((Number) key).longValue());
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                postCache.synchronous().invalidate(postId);
+                // The snapshot carries the comment count
+                snapshots.refresh(postId);
+            }
+        });
+        return comments;
+    }
+}
@@ -0,0 +1,388 @@
+package com.sasken.Service;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import com.sasken.Model.BlogPost;
+import com.sasken.Model.DeflatedText;
+import com.sasken.Model.PostStatus;
+import com.sasken.Model.SearchHit;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory inverted index over post titles and content, ranked with BM25.
+ *
+ * Every indexed post version gets a slot; postings lists hold slot numbers
+ * in ascending order, so adding a post only appends. Re-indexing or
+ * deleting a post retires its slot, and dead slots are compacted away once
+ * they make up a quarter of the index. Status changes only touch the slot's
+ * status, never the postings. The index is rebuilt from the database at
+ * startup by a keyset scan and kept current by BlogPostService.
+ */
+@Service
+@Slf4j
+public class SearchIndexService {
+
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 100;
+
+    // Title terms count this many times towards term frequency and length
+    private static final int TITLE_WEIGHT = 2;
+    private static final int MIN_TOKEN_LENGTH = 2;
+    private static final int MAX_TOKEN_LENGTH = 64;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private static final int REBUILD_BATCH_SIZE = 1000;
+    private static final String REBUILD_SQL = "SELECT id, title, content_deflated, status FROM blog_post"
+            + " WHERE id > ? ORDER BY id LIMIT " + REBUILD_BATCH_SIZE;
+    private static final String REFRESH_SQL = "SELECT id, title, content_deflated, status FROM blog_post WHERE id = ?";
+
+    private static final byte DEAD = -1;
+    private static final PostStatus[] STATUSES = PostStatus.values();
+
+    /** Slot numbers and term frequencies of the posts containing one term. */
+    private static final class Postings {
+        int[] slots = new int[4];
+        int[] freqs = new int[4];
+        int size;
+
+        void add(int slot, int freq) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+                freqs = Arrays.copyOf(freqs, size * 2);
+            }
+            slots[size] = slot;
+            freqs[size] = freq;
+            size++;
+        }
+    }
+
+    private record IndexedPost(long id, String title, String content, PostStatus status) {
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final Map<Long, Integer> slotsByPostId = new HashMap<>();
+
+    private long[] postIds = new long[1024];
+    private String[] titles = new String[1024];
+    private int[] lengths = new int[1024];
+    private byte[] statuses = new byte[1024];
+    private int slotCount;
+    private int liveCount;
+    private long totalLength;
+
+    // While the startup scan runs, posts changed live are re-read afterwards
+    // so the scan cannot leave an older copy in the index.
+    private volatile boolean rebuilding;
+    private final Set<Long> changedDuringRebuild = ConcurrentHashMap.newKeySet();
+
+    public void index(BlogPost post) {
+        if (post.getId() == null) {
+            return;
+        }
+        markChanged(post.getId());
+        put(new IndexedPost(post.getId(), post.getTitle(), post.getContent(), post.getStatus()), true);
+    }
+
+    public void updateStatus(Long postId, PostStatus status) {
+        markChanged(postId);
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotsByPostId.get(postId);
+            if (slot != null) {
+                statuses[slot] = (byte) status.ordinal();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long postId) {
+        markChanged(postId);
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotsByPostId.remove(postId);
+            if (slot != null) {
+                retire(slot);
+                compactIfNeeded();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the best matching posts for any of the query terms, highest
+     * BM25 score first, optionally restricted to one status.
+     */
+    public List<SearchHit> search(String query, PostStatus status, Integer limit) {
+        int topK = limit == null ? DEFAULT_LIMIT : Math.max(1, Math.min(limit, MAX_LIMIT));
+        Set<String> terms = new LinkedHashSet<>(tokenize(query));
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            if (liveCount == 0) {
+                return List.of();
+            }
+            double avgLength = (double) totalLength / liveCount;
+            byte wanted = status == null ? DEAD : (byte) status.ordinal();
+            float[] scores = new float[slotCount];
+            int[] touched = new int[64];
+            int touchedCount = 0;
+
+            for (String term : terms) {
+                Postings list = postings.get(term);
+                if (list == null) {
+                    continue;
+                }
+                // df still counts dead slots until the next compaction, so
+                // measure it against all slots to keep idf positive
+                double idf = Math.log(1 + (slotCount - list.size + 0.5) / (list.size + 0.5));
+                for (int i = 0; i < list.size; i++) {
+                    int slot = list.slots[i];
+                    byte slotStatus = statuses[slot];
+                    if (slotStatus == DEAD || (wanted != DEAD && slotStatus != wanted)) {
+                        continue;
+                    }
+                    int freq = list.freqs[i];
+                    double norm = K1 * (1 - B + B * lengths[slot] / avgLength);
+                    if (scores[slot] == 0) {
+                        if (touchedCount == touched.length) {
+                            touched = Arrays.copyOf(touched, touchedCount * 2);
+                        }
+                        touched[touchedCount++] = slot;
+                    }
+                    scores[slot] += (float) (idf * freq * (K1 + 1) / (freq + norm));
+                }
+            }
+
+            // Min-heap of the best slots so far; on equal scores newer posts rank higher
+            PriorityQueue<Integer> best = new PriorityQueue<>(topK + 1,
+                    (a, b) -> scores[a] != scores[b]
+                            ? Float.compare(scores[a], scores[b])
+                            : Long.compare(postIds[a], postIds[b]));
+            for (int i = 0; i < touchedCount; i++) {
+                best.offer(touched[i]);
+                if (best.size() > topK) {
+                    best.poll();
+                }
+            }
+
+            SearchHit[] hits = new SearchHit[best.size()];
+            for (int i = hits.length - 1; i >= 0; i--) {
+                int slot = best.poll();
+                hits[i] = new SearchHit(postIds[slot], titles[slot], STATUSES[statuses[slot]], scores[slot]);
+            }
+            return Arrays.asList(hits);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        Thread rebuilder = new Thread(this::scanAll, "search-index-rebuild");
+        rebuilder.setDaemon(true);
+        rebuilder.start();
+    }
+
+    private void scanAll() {
+        rebuilding = true;
+        long started = System.currentTimeMillis();
+        try {
+            long lastId = 0;
+            List<IndexedPost> batch;
+            while (!(batch = jdbcTemplate.query(REBUILD_SQL, (rs, i) -> readPost(rs), lastId)).isEmpty()) {
+                for (IndexedPost post : batch) {
+                    put(post, false);
+                }
+                lastId = batch.get(batch.size() - 1).id();
+            }
+        } catch (RuntimeException e) {
+            log.error("Search index rebuild failed: {}", e.getMessage());
+        } finally {
+            rebuilding = false;
+        }
+
+        for (Iterator<Long> it = changedDuringRebuild.iterator(); it.hasNext();) {
+            Long postId = it.next();
+            it.remove();
+            List<IndexedPost> current = jdbcTemplate.query(REFRESH_SQL, (rs, i) -> readPost(rs), postId);
+            if (current.isEmpty()) {
+                remove(postId);
+            } else {
+                put(current.get(0), true);
+            }
+        }
+        log.info("Search index built with {} posts in {} ms", size(), System.currentTimeMillis() - started);
+    }
+
+    private static IndexedPost readPost(ResultSet rs) throws SQLException {
+        DeflatedText content = DeflatedText.fromBytes(rs.getBytes(3));
+        String status = rs.getString(4);
+        return new IndexedPost(rs.getLong(1), rs.getString(2), content != null ? content.text() : null,
+                status != null ? PostStatus.valueOf(status) : PostStatus.DRAFT);
+    }
+
+    private void markChanged(Long postId) {
+        if (rebuilding) {
+            changedDuringRebuild.add(postId);
+        }
+    }
+
+    private void put(IndexedPost post, boolean replace) {
+        // Tokenize outside the lock; only the postings updates need it
+        Map<String, Integer> freqs = new HashMap<>();
+        int length = 0;
+        for (String token : tokenize(post.title())) {
+            freqs.merge(token, TITLE_WEIGHT, Integer::sum);
+            length += TITLE_WEIGHT;
+        }
+        for (String token : tokenize(post.content())) {
+            freqs.merge(token, 1, Integer::sum);
+            length++;
+        }
+
+        lock.writeLock().lock();
+        try {
+            Integer previous = slotsByPostId.get(post.id());
+            if (previous != null) {
+                if (!replace) {
+                    return;
+                }
+                retire(previous);
+            }
+
+            int slot = slotCount++;
+            if (slot == postIds.length) {
+                int capacity = slot * 2;
+                postIds = Arrays.copyOf(postIds, capacity);
+                titles = Arrays.copyOf(titles, capacity);
+                lengths = Arrays.copyOf(lengths, capacity);
+                statuses = Arrays.copyOf(statuses, capacity);
+            }
+            postIds[slot] = post.id();
+            titles[slot] = post.title();
+            lengths[slot] = length;
+            statuses[slot] = (byte) post.status().ordinal();
+            slotsByPostId.put(post.id(), slot);
+            liveCount++;
+            totalLength += length;
+
+            for (Map.Entry<String, Integer> entry : freqs.entrySet()) {
+                postings.computeIfAbsent(entry.getKey(), k -> new Postings()).add(slot, entry.getValue());
+            }
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void retire(int slot) {
+        statuses[slot] = DEAD;
+        titles[slot] = null;
+        liveCount--;
+        totalLength -= lengths[slot];
+    }
+
+    /** Renumbers the live slots densely and drops dead entries from every postings list. */
+    private void compactIfNeeded() {
+        int dead = slotCount - liveCount;
+        if (dead < 1024 || dead < slotCount / 4) {
+            return;
+        }
+        int[] remap = new int[slotCount];
+        int next = 0;
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (statuses[slot] == DEAD) {
+                remap[slot] = -1;
+                continue;
+            }
+            remap[slot] = next;
+            postIds[next] = postIds[slot];
+            titles[next] = titles[slot];
+            lengths[next] = lengths[slot];
+            statuses[next] = statuses[slot];
+            slotsByPostId.put(postIds[next], next);
+            next++;
+        }
+        Arrays.fill(titles, next, slotCount, null);
+        slotCount = next;
+
+        for (Iterator<Postings> it = postings.values().iterator(); it.hasNext();) {
+            Postings list = it.next();
+            int kept = 0;
+            for (int i = 0; i < list.size; i++) {
+                int slot = remap[list.slots[i]];
+                if (slot >= 0) {
+                    list.slots[kept] = slot;
+                    list.freqs[kept] = list.freqs[i];
+                    kept++;
+                }
+            }
+            if (kept == 0) {
+                it.remove();
+            } else {
+                list.size = kept;
+            }
+        }
+    }
+
+    /** Lower-cased runs of letters and digits. */
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        StringBuilder token = new StringBuilder();
+        for (int i = 0, n = text.length(); i <= n; i++) {
+            char c = i < n ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                if (token.length() < MAX_TOKEN_LENGTH) {
+                    token.append(Character.toLowerCase(c));
+                }
+            } else if (token.length() > 0) {
+                if (token.length() >= MIN_TOKEN_LENGTH) {
+                    tokens.add(token.toString());
+                }
+                token.setLength(0);
+            }
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,348 @@
+package com.sasken.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+import org.jsoup.Jsoup;
+import org.jsoup.safety.Safelist;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.util.HtmlUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sasken.Model.BlogPost;
+import com.sasken.Model.PostStatus;
+import com.sasken.Repository.BlogPostRepository;
+import com.sasken.Repository.BlogPostRepository.IdStatusAndVersion;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps a pre-rendered copy of every published post on disk: the JSON the
+ * API returns and a standalone HTML page, each stored plain and gzipped.
+ * Reads of published posts are served from these files without touching the
+ * database. Files are named by post ID, version and a hash of their content,
+ * so the index of what is on disk is rebuilt from the directory on startup
+ * and checked against the posts table.
+ */
+@Service
+@Slf4j
+public class SnapshotService {
+
+    private static final Pattern JSON_FILE = Pattern.compile("(\\d+)-(\\d+)-([0-9a-f]+)\\.json");
+    private static final int RECONCILE_BATCH_SIZE = 500;
+    private static final DateTimeFormatter PUBLISHED_DATE = DateTimeFormatter.ofPattern("MMMM d, yyyy");
+    // Formatting, links and images only: no scripts, styles, frames or event handlers
+    private static final Safelist RICH_CONTENT = Safelist.relaxed();
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private BlogPostRepository blogPostRepo;
+
+    @Value("${app.snapshot.dir:snapshots}")
+    private String snapshotDir;
+
+    private final Map<Long, Snapshot> snapshots = new ConcurrentHashMap<>();
+    // Posts deleted since startup. An edit or comment that committed before
+    // the delete can still reach update() after it; these IDs are never
+    // written again. Post IDs are not reused, and reconcile() covers
+    // deletes from before a restart.
+    private final Set<Long> deleted = ConcurrentHashMap.newKeySet();
+    private final Lock[] postLocks = new Lock[64];
+
+    /**
+     * The files of one snapshotted version of a post. The content hash
+     * changes whenever the files do, including rewrites at the same version
+     * such as a new comment count.
+     */
+    public record Snapshot(long version, String contentHash, Path json, Path jsonGzip, Path html, Path htmlGzip) {
+
+        static Snapshot of(Path dir, long postId, long version, String contentHash) {
+            String base = postId + "-" + version + "-" + contentHash;
+            return new Snapshot(version, contentHash, dir.resolve(base + ".json"), dir.resolve(base + ".json.gz"),
+                    dir.resolve(base + ".html"), dir.resolve(base + ".html.gz"));
+        }
+
+        String baseName(long postId) {
+            return postId + "-" + version + "-" + contentHash;
+        }
+
+        void delete() {
+            for (Path file : new Path[] {json, jsonGzip, html, htmlGzip}) {
+                deleteQuietly(file);
+            }
+        }
+    }
+
+    public SnapshotService() {
+        for (int i = 0; i < postLocks.length; i++) {
+            postLocks[i] = new ReentrantLock();
+        }
+    }
+
+    @PostConstruct
+    void loadIndex() throws IOException {
+        Path root = snapshotRoot();
+        if (!Files.exists(root)) {
+            return;
+        }
+        // Two snapshots of one version mean a crash between writing the new
+        // files and deleting the old ones; neither can be trusted
+        Set<Long> rebuild = new HashSet<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(root, "*.json")) {
+            for (Path file : files) {
+                Matcher matcher = JSON_FILE.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    long postId = Long.parseLong(matcher.group(1));
+                    snapshots.merge(postId, Snapshot.of(root, postId, Long.parseLong(matcher.group(2)), matcher.group(3)),
+                            (current, found) -> {
+                                if (current.version() == found.version()) {
+                                    rebuild.add(postId);
+                                }
+                                return current.version() >= found.version() ? current : found;
+                            });
+                }
+            }
+        }
+        reconcile(rebuild);
+
+        // Drop temporary files and versions a crash left behind
+        Set<String> kept = new HashSet<>();
+        snapshots.forEach((postId, snapshot) -> kept.add(snapshot.baseName(postId)));
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(root)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (Files.isRegularFile(file) && !kept.contains(name.substring(0, Math.max(name.indexOf('.'), 0)))) {
+                    deleteQuietly(file);
+                }
+            }
+        }
+        log.info("Found snapshots of {} published posts", snapshots.size());
+
+        if (!rebuild.isEmpty()) {
+            blogPostRepo.findAllById(rebuild).forEach(this::update);
+            log.info("Rebuilt {} outdated snapshots", rebuild.size());
+        }
+    }
+
+    /**
+     * Drops snapshots whose post was deleted, unpublished or edited while the
+     * files could not be updated, e.g. by another instance or a direct change
+     * to the database. Posts that are still published but at another version
+     * are added to {@code rebuild}; the caller removes the dropped files.
+     */
+    private void reconcile(Set<Long> rebuild) {
+        List<Long> postIds = new ArrayList<>(snapshots.keySet());
+        Map<Long, IdStatusAndVersion> rows = new HashMap<>();
+        for (int from = 0; from < postIds.size(); from += RECONCILE_BATCH_SIZE) {
+            for (IdStatusAndVersion row : blogPostRepo.findVersionsByIdIn(
+                    postIds.subList(from, Math.min(from + RECONCILE_BATCH_SIZE, postIds.size())))) {
+                rows.put(row.getId(), row);
+            }
+        }
+        for (Long postId : postIds) {
+            IdStatusAndVersion row = rows.get(postId);
+            if (row == null || row.getStatus() != PostStatus.PUBLISHED) {
+                snapshots.remove(postId);
+                rebuild.remove(postId);
+            } else if (rebuild.contains(postId)
+                    || snapshots.get(postId).version() != (row.getVersion() != null ? row.getVersion() : 0)) {
+                snapshots.remove(postId);
+                rebuild.add(postId);
+            }
+        }
+    }
+
+    /** Returns the snapshot of a published post, or null if it has none. */
+    public Snapshot find(Long postId) {
+        return snapshots.get(postId);
+    }
+
+    /**
+     * Writes the snapshot of {@code post} if it is published, replacing any
+     * older version, and removes it otherwise. Never fails the caller: a post
+     * without a snapshot is still served from the database.
+     */
+    public void update(BlogPost post) {
+        if (post.getStatus() != PostStatus.PUBLISHED) {
+            remove(post.getId());
+            return;
+        }
+        long version = post.getVersion() != null ? post.getVersion() : 0;
+        Lock lock = postLock(post.getId());
+        lock.lock();
+        try {
+            if (deleted.contains(post.getId())) {
+                return;
+            }
+            Snapshot current = snapshots.get(post.getId());
+            if (current != null && current.version() > version) {
+                return;
+            }
+            byte[] json = objectMapper.writeValueAsBytes(post);
+            byte[] html = renderPage(post).getBytes(StandardCharsets.UTF_8);
+            String contentHash = contentHash(json, html);
+            if (current != null && current.version() == version && current.contentHash().equals(contentHash)) {
+                return;
+            }
+            Path root = snapshotRoot();
+            Files.createDirectories(root);
+            Snapshot snapshot = Snapshot.of(root, post.getId(), version, contentHash);
+            write(json, snapshot.json(), snapshot.jsonGzip());
+            write(html, snapshot.html(), snapshot.htmlGzip());
+            snapshots.put(post.getId(), snapshot);
+            if (current != null) {
+                current.delete();
+            }
+        } catch (IOException e) {
+            log.warn("Could not write snapshot of post {}: {}", post.getId(), e.getMessage());
+            remove(post.getId());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Rebuilds the snapshot of a post from the database if it has one; for
+     * changes such as new comments that do not go through an edit.
+     */
+    public void refresh(Long postId) {
+        if (snapshots.containsKey(postId)) {
+            blogPostRepo.findById(postId).ifPresentOrElse(this::update, () -> remove(postId));
+        }
+    }
+
+    /**
+     * Removes the snapshot of a deleted post and keeps any update still in
+     * flight for it from writing a new one.
+     */
+    public void delete(Long postId) {
+        deleted.add(postId);
+        remove(postId);
+    }
+
+    public void remove(Long postId) {
+        Lock lock = postLock(postId);
+        lock.lock();
+        try {
+            Snapshot snapshot = snapshots.remove(postId);
+            if (snapshot != null) {
+                snapshot.delete();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static String contentHash(byte[] json, byte[] html) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(json);
+            digest.update(html);
+            return HexFormat.of().formatHex(digest.digest(), 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Written once and served many times, so compress as hard as gzip allows
+    private static void write(byte[] content, Path plain, Path gzipped) throws IOException {
+        writeAtomically(plain, content, false);
+        writeAtomically(gzipped, content, true);
+    }
+
+    private static void writeAtomically(Path target, byte[] content, boolean gzip) throws IOException {
+        Path temp = target.resolveSibling(".tmp-" + UUID.randomUUID());
+        try {
+            try (OutputStream out = gzip ? new BestGzipOutputStream(Files.newOutputStream(temp))
+                    : Files.newOutputStream(temp)) {
+                out.write(content);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static String renderPage(BlogPost post) {
+        String title = HtmlUtils.htmlEscape(post.getTitle() != null ? post.getTitle() : "Untitled");
+        StringBuilder html = new StringBuilder(1024)
+                .append("<!DOCTYPE html>\n<html lang=\"en\">\n<head>\n<meta charset=\"UTF-8\">\n")
+                .append("<meta name=\"viewport\" content=\"width=device-width, initial-scale=1.0\">\n")
+                .append("<title>").append(title).append("</title>\n")
+                .append("<link rel=\"stylesheet\" href=\"/style.css\">\n</head>\n<body>\n<article class=\"post\">\n")
+                .append("<h1>").append(title).append("</h1>\n<p class=\"post-meta\">By ")
+                .append(HtmlUtils.htmlEscape(post.getAuthorName() != null ? post.getAuthorName() : "Anonymous"));
+        if (post.getUpdatedAt() != null) {
+            html.append(" &middot; ").append(post.getUpdatedAt().format(PUBLISHED_DATE));
+        }
+        html.append("</p>\n<div class=\"post-content\">\n");
+
+        // Rich content is the editor's HTML, which any client can set, so it is
+        // cut down to the safelist; plain content becomes paragraphs
+        String richContent = post.getRichContent();
+        if (richContent != null && !richContent.isBlank()) {
+            html.append(Jsoup.clean(richContent, RICH_CONTENT));
+        } else if (post.getContent() != null) {
+            for (String paragraph : post.getContent().split("\\R\\s*\\R")) {
+                if (!paragraph.isBlank()) {
+                    html.append("<p>").append(HtmlUtils.htmlEscape(paragraph.strip()).replaceAll("\\R", "<br>"))
+                            .append("</p>\n");
+                }
+            }
+        }
+        return html.append("\n</div>\n</article>\n</body>\n</html>\n").toString();
+    }
+
+    private Lock postLock(Long postId) {
+        return postLocks[Math.floorMod(postId.hashCode(), postLocks.length)];
+    }
+
+    private Path snapshotRoot() {
+        return Paths.get(snapshotDir).toAbsolutePath().normalize();
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete snapshot {}: {}", path, e.getMessage());
+        }
+    }
+
+    private static final class BestGzipOutputStream extends GZIPOutputStream {
+
+        BestGzipOutputStream(OutputStream out) throws IOException {
+            super(out);
+            def.setLevel(Deflater.BEST_COMPRESSION);
+        }
+    }
+}
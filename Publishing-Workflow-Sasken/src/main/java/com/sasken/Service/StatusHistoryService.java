@@ -0,0 +1,460 @@
+package com.sasken.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sasken.Model.PostStatus;
+import com.sasken.Model.PostStatusHistory;
+import com.sasken.Repository.PostStatusHistoryRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Write-behind log of post status transitions. Transitions are queued in
+ * memory and a background writer inserts them with JDBC batches once
+ * {@code app.history.batch-size} entries are waiting or
+ * {@code app.history.flush-interval} has passed, so recording never adds a
+ * database round trip to changeStatus. The queue is drained on shutdown.
+ *
+ * A batch that fails on its data is retried row by row, so one bad row
+ * cannot hold back the rest. Failed rows are retried after a delay that
+ * doubles from {@code app.history.retry-delay} with each attempt, so a short
+ * database outage does not use up their attempts. Rows that keep failing,
+ * and anything that cannot be written at shutdown, are appended to
+ * {@code app.history.spill-file}; the file is replayed on start and every
+ * {@code app.history.replay-interval}. Spilled rows stay in the history
+ * until they are stored.
+ */
+@Service
+@Slf4j
+public class StatusHistoryService {
+
+    private static final String INSERT_SQL = "INSERT INTO post_status_history"
+            + " (post_id, old_status, new_status, changed_by, changed_at, entry_id) VALUES (?, ?, ?, ?, ?, ?)";
+
+    // Rows are retried this many times before they are spilled to disk
+    private static final int MAX_ATTEMPTS = 5;
+    private static final int REPLAY_BATCH_SIZE = 500;
+
+    @Autowired
+    private PostStatusHistoryRepository historyRepo;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.history.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.history.flush-interval:1000}")
+    private long flushIntervalMillis;
+
+    @Value("${app.history.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${app.history.retry-delay:1000}")
+    private long retryDelayMillis;
+
+    // No default: the file must outlive the process, so its place is chosen
+    // by whoever deploys it rather than left to the working directory
+    @Value("${app.history.spill-file}")
+    private String spillFile;
+
+    @Value("${app.history.replay-interval:60000}")
+    private long replayIntervalMillis;
+
+    private BlockingQueue<PostStatusHistory> queue;
+
+    // Failed entries waiting out their delay before the next attempt
+    private final DelayQueue<Retry> retries = new DelayQueue<>();
+
+    // Every entry not yet committed, whether queued, waiting to be retried or
+    // in the batch being written
+    private final Set<PostStatusHistory> unflushed = ConcurrentHashMap.newKeySet();
+
+    // Failed writes per entry ID, for entries that are waiting to be retried
+    private final Map<String, Integer> attempts = new ConcurrentHashMap<>();
+
+    // Entries in the spill file by entry ID, listed until a replay stores them
+    private final Map<String, PostStatusHistory> spilled = new ConcurrentHashMap<>();
+
+    private long nextReplay;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    @PostConstruct
+    void start() {
+        replaySpilled();
+        queue = new LinkedBlockingQueue<>(queueCapacity);
+        running = true;
+        writer = new Thread(this::writeLoop, "status-history-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        writer.interrupt();
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+        List<PostStatusHistory> remaining = new ArrayList<>();
+        for (Retry retry : retries.toArray(new Retry[0])) {
+            remaining.add(retry.entry());
+        }
+        retries.clear();
+        queue.drainTo(remaining);
+        flush(remaining);
+    }
+
+    public void record(Long postId, PostStatus oldStatus, PostStatus newStatus, Long changedBy) {
+        PostStatusHistory entry = PostStatusHistory.builder()
+                .postId(postId)
+                .oldStatus(oldStatus)
+                .newStatus(newStatus)
+                .changedBy(changedBy)
+                .changedAt(LocalDateTime.now())
+                .entryId(UUID.randomUUID().toString())
+                .build();
+        unflushed.add(entry);
+        if (!queue.offer(entry)) {
+            // The writer has fallen far behind; write this one directly rather than drop it
+            log.warn("Status history queue full, writing entry for post {} synchronously", postId);
+            flush(List.of(entry));
+        }
+    }
+
+    public List<PostStatusHistory> getHistory(Long postId) {
+        // Snapshot pending entries before reading the table so an entry committed
+        // in between shows up twice (and is de-duplicated) rather than not at all
+        List<PostStatusHistory> pending = new ArrayList<>();
+        for (PostStatusHistory entry : unflushed) {
+            if (postId.equals(entry.getPostId())) {
+                pending.add(entry);
+            }
+        }
+        for (PostStatusHistory entry : spilled.values()) {
+            if (postId.equals(entry.getPostId())) {
+                pending.add(entry);
+            }
+        }
+
+        List<PostStatusHistory> history = new ArrayList<>(historyRepo.findByPostIdOrderByChangedAtAsc(postId));
+        Set<String> stored = new HashSet<>();
+        for (PostStatusHistory entry : history) {
+            if (entry.getEntryId() != null) {
+                stored.add(entry.getEntryId());
+            }
+        }
+        for (PostStatusHistory entry : pending) {
+            if (stored.add(entry.getEntryId())) {
+                history.add(entry);
+            }
+        }
+        history.sort(Comparator.comparing(PostStatusHistory::getChangedAt));
+        return history;
+    }
+
+    private void writeLoop() {
+        List<PostStatusHistory> batch = new ArrayList<>(batchSize);
+        nextReplay = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(replayIntervalMillis);
+        while (running) {
+            try {
+                // Retries that are due go first so new entries cannot starve them
+                List<Retry> due = new ArrayList<>();
+                retries.drainTo(due, batchSize);
+                for (Retry retry : due) {
+                    batch.add(retry.entry());
+                }
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+                while (batch.size() < batchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    PostStatusHistory next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // Shutdown: flush what we hold; stop() drains the rest
+            }
+            flush(batch);
+            batch = new ArrayList<>(batchSize);
+            if (running && System.nanoTime() - nextReplay >= 0) {
+                nextReplay = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(replayIntervalMillis);
+                replaySpilled();
+            }
+        }
+    }
+
+    private void flush(List<PostStatusHistory> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<PostStatusHistory> failed;
+        try {
+            // In one transaction, so a failed batch leaves no rows behind
+            // for the row-by-row retry to insert a second time
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_SQL, batch,
+                    batch.size(), (ps, entry) -> new ArgumentPreparedStatementSetter(insertValues(entry)).setValues(ps)));
+            forget(batch);
+            return;
+        } catch (DataAccessResourceFailureException | TransientDataAccessException e) {
+            // The database is unreachable; row by row would only fail slower
+            log.error("Failed to write {} status history entries: {}", batch.size(), e.getMessage());
+            failed = batch;
+        } catch (RuntimeException e) {
+            log.warn("Failed to write a batch of {} status history entries, retrying them one by one: {}",
+                    batch.size(), e.getMessage());
+            failed = insertEach(batch);
+        }
+        retryLater(failed);
+    }
+
+    /** Inserts the entries one at a time and returns those that failed. */
+    private List<PostStatusHistory> insertEach(List<PostStatusHistory> entries) {
+        List<PostStatusHistory> failed = new ArrayList<>();
+        for (PostStatusHistory entry : entries) {
+            try {
+                jdbcTemplate.update(INSERT_SQL, insertValues(entry));
+                forget(List.of(entry));
+            } catch (RuntimeException e) {
+                log.error("Failed to write status history entry {} of post {}: {}", entry.getEntryId(),
+                        entry.getPostId(), e.getMessage());
+                failed.add(entry);
+            }
+        }
+        return failed;
+    }
+
+    // Schedules failed entries for another attempt after a delay that doubles
+    // with each failure; entries that failed too often, do not fit or come
+    // after shutdown go to the spill file instead
+    private void retryLater(List<PostStatusHistory> failed) {
+        List<PostStatusHistory> spill = new ArrayList<>();
+        for (PostStatusHistory entry : failed) {
+            int tries = attempts.merge(entry.getEntryId(), 1, Integer::sum);
+            if (!running || tries >= MAX_ATTEMPTS || retries.size() >= queueCapacity) {
+                spill.add(entry);
+            } else {
+                retries.add(new Retry(entry, System.nanoTime()
+                        + TimeUnit.MILLISECONDS.toNanos(retryDelayMillis << (tries - 1))));
+            }
+        }
+        spill(spill);
+    }
+
+    private record Retry(PostStatusHistory entry, long dueNanos) implements Delayed {
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(dueNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(dueNanos, ((Retry) other).dueNanos);
+        }
+    }
+
+    // Stored or spilled: no longer pending in memory
+    private void forget(List<PostStatusHistory> entries) {
+        for (PostStatusHistory entry : entries) {
+            unflushed.remove(entry);
+            attempts.remove(entry.getEntryId());
+        }
+    }
+
+    private static Object[] insertValues(PostStatusHistory entry) {
+        return new Object[] {
+            entry.getPostId(),
+            entry.getOldStatus() != null ? entry.getOldStatus().name() : null,
+            entry.getNewStatus() != null ? entry.getNewStatus().name() : null,
+            entry.getChangedBy(),
+            entry.getChangedAt() != null ? Timestamp.valueOf(entry.getChangedAt()) : null,
+            entry.getEntryId()
+        };
+    }
+
+    private synchronized void spill(List<PostStatusHistory> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        Path file = spillPath();
+        try {
+            Path dir = file.getParent();
+            if (dir != null) {
+                Files.createDirectories(dir);
+            }
+            try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (PostStatusHistory entry : entries) {
+                    out.write(toLine(entry));
+                    out.newLine();
+                }
+            }
+            for (PostStatusHistory entry : entries) {
+                spilled.put(entry.getEntryId(), entry);
+            }
+            log.warn("Spilled {} status history entries to {}; they are written by the next replay",
+                    entries.size(), file);
+        } catch (IOException e) {
+            // Nowhere left to keep them; log them so they can be restored by hand
+            for (PostStatusHistory entry : entries) {
+                log.error("Lost status history entry: {}", toLine(entry));
+            }
+            log.error("Could not spill status history entries to {}: {}", file, e.getMessage());
+        }
+        forget(entries);
+    }
+
+    /**
+     * Inserts the spilled entries, skipping those already stored, and keeps
+     * only the ones that still fail in the file.
+     */
+    private synchronized void replaySpilled() {
+        Path file = spillPath();
+        if (!Files.exists(file)) {
+            return;
+        }
+        List<PostStatusHistory> entries = new ArrayList<>();
+        List<String> unreadable = new ArrayList<>();
+        try {
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    entries.add(fromLine(line));
+                } catch (RuntimeException e) {
+                    unreadable.add(line);
+                }
+            }
+        } catch (IOException e) {
+            log.error("Could not read spilled status history from {}: {}", file, e.getMessage());
+            return;
+        }
+
+        Set<String> stored = new HashSet<>();
+        NamedParameterJdbcTemplate named = new NamedParameterJdbcTemplate(jdbcTemplate);
+        try {
+            for (int from = 0; from < entries.size(); from += REPLAY_BATCH_SIZE) {
+                List<String> ids = entries.subList(from, Math.min(from + REPLAY_BATCH_SIZE, entries.size()))
+                        .stream()
+                        .map(PostStatusHistory::getEntryId)
+                        .toList();
+                stored.addAll(named.queryForList(
+                        "SELECT entry_id FROM post_status_history WHERE entry_id IN (:ids)",
+                        Collections.singletonMap("ids", ids), String.class));
+            }
+        } catch (RuntimeException e) {
+            // Still unreachable; the file stays as it is for the next replay
+            log.error("Could not replay spilled status history from {}: {}", file, e.getMessage());
+            for (PostStatusHistory entry : entries) {
+                spilled.put(entry.getEntryId(), entry);
+            }
+            return;
+        }
+        List<String> kept = new ArrayList<>(unreadable);
+        int replayed = 0;
+        for (PostStatusHistory entry : entries) {
+            if (stored.add(entry.getEntryId())) {
+                try {
+                    jdbcTemplate.update(INSERT_SQL, insertValues(entry));
+                    replayed++;
+                } catch (DuplicateKeyException e) {
+                    // Stored by another replay since the check
+                } catch (RuntimeException e) {
+                    kept.add(toLine(entry));
+                    spilled.put(entry.getEntryId(), entry);
+                    continue;
+                }
+            }
+            spilled.remove(entry.getEntryId());
+        }
+
+        try {
+            if (kept.isEmpty()) {
+                Files.delete(file);
+            } else {
+                Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+                Files.write(temp, kept, StandardCharsets.UTF_8);
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                log.error("{} spilled status history entries could not be written and stay in {}",
+                        kept.size(), file);
+            }
+        } catch (IOException e) {
+            log.error("Could not update spilled status history in {}: {}", file, e.getMessage());
+        }
+        if (replayed > 0) {
+            log.info("Wrote {} spilled status history entries", replayed);
+        }
+    }
+
+    private Path spillPath() {
+        return Paths.get(spillFile).toAbsolutePath().normalize();
+    }
+
+    // One tab-separated line per entry; empty fields are nulls
+    private static String toLine(PostStatusHistory entry) {
+        return String.join("\t",
+                entry.getEntryId(),
+                String.valueOf(entry.getPostId()),
+                entry.getOldStatus() != null ? entry.getOldStatus().name() : "",
+                entry.getNewStatus() != null ? entry.getNewStatus().name() : "",
+                entry.getChangedBy() != null ? entry.getChangedBy().toString() : "",
+                entry.getChangedAt() != null ? entry.getChangedAt().toString() : "");
+    }
+
+    private static PostStatusHistory fromLine(String line) {
+        String[] fields = line.split("\t", -1);
+        if (fields.length != 6) {
+            throw new IllegalArgumentException("Expected 6 fields but found " + fields.length);
+        }
+        return PostStatusHistory.builder()
+                .entryId(fields[0])
+                .postId(Long.valueOf(fields[1]))
+                .oldStatus(fields[2].isEmpty() ? null : PostStatus.valueOf(fields[2]))
+                .newStatus(fields[3].isEmpty() ? null : PostStatus.valueOf(fields[3]))
+                .changedBy(fields[4].isEmpty() ? null : Long.valueOf(fields[4]))
+                .changedAt(fields[5].isEmpty() ? null : LocalDateTime.parse(fields[5]))
+                .build();
+    }
+}
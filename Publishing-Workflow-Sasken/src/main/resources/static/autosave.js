@@ -0,0 +1,134 @@
+// Delta autosave shared by the editors. Remembers the last saved title and
+// bodies of a post and sends only the changed span of each field, relative
+// to the version the server last confirmed. When someone else saved in the
+// meantime, their version is merged with ours and never silently replaced.
+
+function textEdit(before, after) {
+  before = before || "";
+  after = after || "";
+  if (before === after) return null;
+
+  const max = Math.min(before.length, after.length);
+  let start = 0;
+  while (start < max && before.charCodeAt(start) === after.charCodeAt(start)) start++;
+  let end = 0;
+  while (
+    end < max - start &&
+    before.charCodeAt(before.length - 1 - end) === after.charCodeAt(after.length - 1 - end)
+  ) end++;
+  // Never split a surrogate pair, so each insert is valid text on its own
+  if (start > 0 && isHighSurrogate(before.charCodeAt(start - 1))) start--;
+  if (end > 0 && isHighSurrogate(before.charCodeAt(before.length - end - 1))) end--;
+
+  return {
+    offset: start,
+    deleteCount: before.length - start - end,
+    insert: after.substring(start, after.length - end),
+  };
+}
+
+function isHighSurrogate(code) {
+  return code >= 0xd800 && code <= 0xdbff;
+}
+
+function applyEdit(text, edit) {
+  return text.substring(0, edit.offset) + edit.insert + text.substring(edit.offset + edit.deleteCount);
+}
+
+// Three-way merge of one field against the text both sides started from.
+// Edits to separate spans of a body combine; anything else that both sides
+// changed differently is a conflict, returned as null.
+function mergeField(base, ours, theirs, isText) {
+  base = base || "";
+  ours = ours || "";
+  theirs = theirs || "";
+  if (ours === base) return theirs;
+  if (theirs === base || theirs === ours) return ours;
+  if (!isText) return null;
+
+  const mine = textEdit(base, ours);
+  const other = textEdit(base, theirs);
+  if (mine.offset + mine.deleteCount < other.offset) {
+    return applyEdit(applyEdit(base, other), mine);
+  }
+  if (other.offset + other.deleteCount < mine.offset) {
+    return applyEdit(applyEdit(base, mine), other);
+  }
+  return null;
+}
+
+function versionFrom(res) {
+  const tag = res.headers.get("ETag");
+  return tag ? parseInt(tag.replace(/"/g, ""), 10) : null;
+}
+
+function createAutosaver(postsUrl, post) {
+  const saved = {
+    title: post.title,
+    content: post.content,
+    richContent: post.richContent,
+  };
+  let version = post.version;
+  let saving = null;
+
+  async function send(fields, overwrite) {
+    const body = { baseVersion: version };
+    let changed = false;
+    if (fields.title !== undefined && fields.title !== saved.title) {
+      body.title = fields.title;
+      changed = true;
+    }
+    for (const field of ["content", "richContent"]) {
+      if (fields[field] === undefined) continue;
+      const edit = textEdit(saved[field], fields[field]);
+      if (edit) {
+        body[field + "Edits"] = [edit];
+        changed = true;
+      }
+    }
+    if (!changed) return { ok: true, fields };
+
+    const res = await fetch(`${postsUrl}/${post.id}/autosave`, {
+      method: "POST",
+      headers: { "Content-Type": "application/json" },
+      body: JSON.stringify(body),
+    });
+
+    // Someone else saved since our base; the body is their version. Merge
+    // their changes with ours, and only then adopt their version as the
+    // base and send the merged fields as an ordinary delta
+    if (res.status === 409) {
+      const current = await res.json();
+      const merged = {};
+      for (const field of Object.keys(fields)) {
+        merged[field] = overwrite
+          ? fields[field]
+          : mergeField(saved[field], fields[field], current[field], field !== "title");
+        if (merged[field] === null) return { ok: false, conflict: current };
+      }
+      saved.title = current.title;
+      saved.content = current.content;
+      saved.richContent = current.richContent;
+      version = current.version;
+      return send(merged, overwrite);
+    }
+    if (!res.ok) return { ok: false };
+
+    version = versionFrom(res);
+    Object.assign(saved, fields);
+    return { ok: true, fields };
+  }
+
+  return {
+    // Saves are serialized so each one is based on the previous result.
+    // Resolves to { ok, fields } with the fields as saved, which include
+    // changes merged in from other editors, or { ok: false, conflict } with
+    // the other editor's version when both changed the same text. Pass
+    // overwrite to replace that version with ours after the user agrees.
+    save(fields, { overwrite = false } = {}) {
+      const run = () => send(fields, overwrite);
+      saving = (saving || Promise.resolve()).then(run, run);
+      return saving;
+    },
+  };
+}
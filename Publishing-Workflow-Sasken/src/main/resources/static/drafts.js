@@ -1,21 +1,20 @@
 const API_BASE = "http://localhost:8080/api/posts";
 const authorId = 1; // Simulated author
 
-async function loadDrafts() {
+// Loads the first page of drafts, or the page after `cursor` when
+// "Load more" is clicked
+async function loadDrafts(cursor = null) {
   try {
-    const res = await fetch(API_BASE);
-    const posts = await res.json();
-
-    const drafts = posts.filter(
-      (p) => p.status === "DRAFT" && p.authorId === authorId
+    const { summaries: drafts, nextCursor } = await fetchSummaryPage(
+      `status=DRAFT&authorId=${authorId}`,
+      cursor
     );
 
     const container = document.getElementById("draft-posts");
-    container.innerHTML = "";
+    if (!cursor) container.innerHTML = "";
 
-    if (drafts.length === 0) {
+    if (drafts.length === 0 && !cursor) {
       container.innerHTML = "<p class='text-gray-500'>No drafts available.</p>";
-      return;
     }
 
     drafts.forEach((post) => {
@@ -24,7 +23,7 @@ async function loadDrafts() {
 
       div.innerHTML = `
         <h2 class="text-xl font-bold">${post.title}</h2>
-        <p class="mb-4">${post.content}</p>
+        <p class="mb-4">${post.excerpt || ""}</p>
         <div class="flex gap-4">
           <button onclick="editDraft(${post.id})" class="bg-yellow-500 text-white px-4 py-2 rounded hover:bg-yellow-600">✏️ Edit</button>
           <button onclick="deleteDraft(${post.id})" class="bg-red-500 text-white px-4 py-2 rounded hover:bg-red-600">🗑️ Delete</button>
@@ -33,6 +32,7 @@ async function loadDrafts() {
 
       container.appendChild(div);
     });
+    showLoadMore(container, nextCursor, loadDrafts);
   } catch (err) {
     console.error("Failed to load drafts:", err);
   }
@@ -54,4 +54,4 @@ async function deleteDraft(postId) {
   }
 }
 
-window.onload = loadDrafts;
+window.onload = () => loadDrafts();
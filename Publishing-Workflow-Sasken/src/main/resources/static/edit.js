@@ -1,4 +1,5 @@
 const postId = new URLSearchParams(window.location.search).get("id");
+let autosaver = null;
 
 async function loadPost() {
   const res = await fetch(`http://localhost:8080/api/posts/${postId}`);
@@ -7,6 +8,7 @@ async function loadPost() {
   document.getElementById("title").value = post.title;
   document.getElementById("content").value = post.content;
   document.getElementById("author").value = post.authorId;
+  autosaver = createAutosaver("http://localhost:8080/api/posts", post);
 }
 
 async function updateDraft(sendToReview = false) {
@@ -19,19 +21,19 @@ async function updateDraft(sendToReview = false) {
     return;
   }
 
-  // Update the post
-  const response = await fetch(`http://localhost:8080/api/posts/${postId}`, {
-    method: "PUT",
-    headers: { "Content-Type": "application/json" },
-    body: JSON.stringify({
-      id: postId,
-      title,
-      content,
-      authorId,
-    }),
-  });
-
-  if (!response.ok) {
+  // Update the post, sending only what changed since it was loaded
+  let result = await autosaver.save({ title, content });
+
+  if (result.conflict) {
+    const replace = confirm(
+      "Someone else changed the same part of this draft while you were editing.\n\n" +
+        "OK: replace their changes with yours.\nCancel: keep editing without saving."
+    );
+    if (!replace) return;
+    result = await autosaver.save({ title, content }, { overwrite: true });
+  }
+
+  if (!result.ok) {
     alert("Failed to update draft.");
     return;
   }
@@ -0,0 +1,29 @@
+// Subscribes to the server's live event stream. `handlers` maps event names
+// (post-created, status-changed, deleted, media-ready, stats-delta, resync)
+// to callbacks that receive the parsed event data. The browser reconnects
+// on its own and the server replays whatever was missed in between.
+function subscribeToEvents(handlers) {
+  const source = new EventSource("/api/events");
+  for (const [name, handler] of Object.entries(handlers)) {
+    source.addEventListener(name, (e) => handler(JSON.parse(e.data)));
+  }
+  return source;
+}
+
+// Adds a stats-delta event to the counters shown on a page. `elements` maps
+// a status, or TOTAL, to the id of the element holding its count.
+function applyStatsDelta(delta, elements) {
+  let total = 0;
+  for (const [status, change] of Object.entries(delta)) {
+    total += change;
+    adjustCount(elements[status], change);
+  }
+  adjustCount(elements.TOTAL, total);
+}
+
+function adjustCount(elementId, change) {
+  const element = elementId && document.getElementById(elementId);
+  if (element && change) {
+    element.textContent = (parseInt(element.textContent, 10) || 0) + change;
+  }
+}
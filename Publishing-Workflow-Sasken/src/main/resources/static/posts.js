@@ -1,14 +1,21 @@
 const API_BASE = "http://localhost:8080/api/posts";
 
-async function loadAllPosts() {
+let nextCursor = null;
+
+async function loadAllPosts(cursor = null) {
   try {
-    const res = await fetch(API_BASE);
+    const url = cursor
+      ? `${API_BASE}/summaries?cursor=${encodeURIComponent(cursor)}`
+      : `${API_BASE}/summaries`;
+    const res = await fetch(url);
     const posts = await res.json();
+    nextCursor = res.headers.get("X-Next-Cursor");
 
     const container = document.getElementById("posts");
-    container.innerHTML = "";
+    if (!cursor) container.innerHTML = "";
+    document.getElementById("load-more")?.remove();
 
-    if (posts.length === 0) {
+    if (posts.length === 0 && !cursor) {
       container.innerHTML = `<p class="text-gray-500">No blog posts available.</p>`;
       return;
     }
@@ -19,7 +26,7 @@ async function loadAllPosts() {
 
       div.innerHTML = `
         <h2 class="text-xl font-semibold text-blue-800 mb-1">${post.title}</h2>
-        <p class="text-gray-700 mb-2">${post.content}</p>
+        <p class="text-gray-700 mb-2">${post.excerpt || ""}</p>
         <p class="text-sm text-gray-500">Status: <strong>${
           post.status
         }</strong></p>
@@ -33,6 +40,15 @@ async function loadAllPosts() {
 
       container.appendChild(div);
     });
+
+    if (nextCursor) {
+      const more = document.createElement("button");
+      more.id = "load-more";
+      more.className = "bg-blue-600 text-white px-4 py-2 rounded hover:bg-blue-700";
+      more.textContent = "Load more";
+      more.onclick = () => loadAllPosts(nextCursor);
+      container.after(more);
+    }
   } catch (err) {
     console.error("Error loading posts:", err);
     document.getElementById("posts").innerHTML =
@@ -49,4 +65,4 @@ function formatDate(datetime) {
   });
 }
 
-window.onload = loadAllPosts;
+window.onload = () => loadAllPosts();
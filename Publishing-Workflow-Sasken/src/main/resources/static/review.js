@@ -1,93 +1,26 @@
 const API_BASE = "http://localhost:8080/api/posts";
 
-async function loadReviewPosts() {
+// Loads the first page of the queue with the stats, or the page after
+// `cursor` when "Load more" is clicked
+async function loadReviewPosts(cursor = null) {
   try {
-    const res = await fetch(API_BASE);
-    const posts = await res.json();
-    const reviewPosts = posts.filter((p) => p.status === "REVIEW");
-
+    const { summaries: reviewPosts, nextCursor } = await fetchSummaryPage("status=REVIEW", cursor);
     const container = document.getElementById("review-posts");
-    container.innerHTML = "";
-
-    // Update stats
-    document.getElementById("pending-count").textContent = reviewPosts.length;
 
-    if (reviewPosts.length === 0) {
-      container.innerHTML = `
-        <div class="text-center py-12">
-          <div class="w-16 h-16 bg-gray-100 rounded-full flex items-center justify-center mx-auto mb-4">
-            <svg class="w-8 h-8 text-gray-400" fill="none" stroke="currentColor" viewBox="0 0 24 24">
-              <path stroke-linecap="round" stroke-linejoin="round" stroke-width="2" d="M9 12h6m-6 4h6m2 5H7a2 2 0 01-2-2V5a2 2 0 012-2h5.586a1 1 0 01.707.293l5.414 5.414a1 1 0 01.293.707V19a2 2 0 01-2 2z"/>
-            </svg>
-          </div>
-          <h3 class="text-lg font-semibold text-gray-900 mb-2">No Posts for Review</h3>
-          <p class="text-gray-600">All posts have been reviewed or are in other stages.</p>
-        </div>
-      `;
-      return;
+    if (!cursor) {
+      const stats = await (await fetch("/actuator/blogcraft/stats")).json();
+      document.getElementById("pending-count").textContent = stats.reviewPosts || 0;
+      container.innerHTML = "";
+      if (reviewPosts.length === 0) {
+        showEmptyState(container);
+      }
     }
 
-    reviewPosts.forEach((post) => {
-      const div = document.createElement("div");
-      div.className = "bg-white rounded-xl border border-gray-200 shadow-sm hover:shadow-md transition-all duration-200 overflow-hidden";
-      
-      div.innerHTML = `
-        <div class="p-6">
-          <div class="flex items-start justify-between mb-4">
-            <div class="flex-1">
-              <h3 class="text-xl font-semibold text-gray-900 mb-2">${post.title}</h3>
-              <div class="flex items-center gap-4 text-sm text-gray-500 mb-3">
-                <span class="flex items-center gap-1">
-                  <svg class="w-4 h-4" fill="none" stroke="currentColor" viewBox="0 0 24 24">
-                    <path stroke-linecap="round" stroke-linejoin="round" stroke-width="2" d="M16 7a4 4 0 11-8 0 4 4 0 018 0zM12 14a7 7 0 00-7 7h14a7 7 0 00-7-7z"/>
-                  </svg>
-                  Author ID: ${post.authorId}
-                </span>
-                <span class="flex items-center gap-1">
-                  <svg class="w-4 h-4" fill="none" stroke="currentColor" viewBox="0 0 24 24">
-                    <path stroke-linecap="round" stroke-linejoin="round" stroke-width="2" d="M8 7V3m8 4V3m-9 8h10M5 21h14a2 2 0 002-2V7a2 2 0 00-2-2H5a2 2 0 00-2 2v12a2 2 0 002 2z"/>
-                  </svg>
-                  ${formatDate(post.createdAt)}
-                </span>
-              </div>
-            </div>
-            <div class="flex items-center gap-2">
-              <span class="px-3 py-1 bg-yellow-100 text-yellow-800 text-xs font-medium rounded-full">
-                Awaiting Review
-              </span>
-            </div>
-          </div>
-          
-          <div class="bg-gray-50 rounded-lg p-4 mb-6">
-            <p class="text-gray-700 leading-relaxed line-clamp-3">${post.content}</p>
-          </div>
-          
-          <div class="flex flex-col sm:flex-row gap-3">
-            <button 
-              onclick="changeStatus(${post.id}, 'APPROVED')"
-              class="flex-1 bg-gradient-to-r from-green-500 to-emerald-500 hover:from-green-600 hover:to-emerald-600 text-white px-6 py-3 rounded-lg font-semibold transition-all duration-200 flex items-center justify-center gap-2 group shadow-lg hover:shadow-xl transform hover:scale-105"
-            >
-              <svg class="w-5 h-5 group-hover:scale-110 transition-transform" fill="none" stroke="currentColor" viewBox="0 0 24 24">
-                <path stroke-linecap="round" stroke-linejoin="round" stroke-width="2" d="M9 12l2 2 4-4m6 2a9 9 0 11-18 0 9 9 0 0118 0z"/>
-              </svg>
-              Approve Post
-            </button>
-            
-            <button 
-              onclick="changeStatus(${post.id}, 'DRAFT')"
-              class="flex-1 bg-gradient-to-r from-red-500 to-pink-500 hover:from-red-600 hover:to-pink-600 text-white px-6 py-3 rounded-lg font-semibold transition-all duration-200 flex items-center justify-center gap-2 group shadow-lg hover:shadow-xl transform hover:scale-105"
-            >
-              <svg class="w-5 h-5 group-hover:scale-110 transition-transform" fill="none" stroke="currentColor" viewBox="0 0 24 24">
-                <path stroke-linecap="round" stroke-linejoin="round" stroke-width="2" d="M10 14l2-2m0 0l2-2m-2 2l-2-2m2 2l2 2m7-2a9 9 0 11-18 0 9 9 0 0118 0z"/>
-              </svg>
-              Revert to Draft
-            </button>
-          </div>
-        </div>
-      `;
-      
-      container.appendChild(div);
-    });
+    // Skip posts a live event already put on the page
+    reviewPosts
+      .filter((post) => !document.getElementById(`post-${post.id}`))
+      .forEach((post) => container.appendChild(createPostCard(post)));
+    showLoadMore(container, nextCursor, loadReviewPosts);
   } catch (error) {
     console.error("Error loading review posts:", error);
     document.getElementById("review-posts").innerHTML = `
@@ -104,6 +37,96 @@ async function loadReviewPosts() {
   }
 }
 
+function createPostCard(post) {
+  const div = document.createElement("div");
+  div.id = `post-${post.id}`;
+  div.className = "bg-white rounded-xl border border-gray-200 shadow-sm hover:shadow-md transition-all duration-200 overflow-hidden";
+  
+  div.innerHTML = `
+    <div class="p-6">
+      <div class="flex items-start justify-between mb-4">
+        <div class="flex-1">
+          <h3 class="text-xl font-semibold text-gray-900 mb-2">${post.title}</h3>
+          <div class="flex items-center gap-4 text-sm text-gray-500 mb-3">
+            <span class="flex items-center gap-1">
+              <svg class="w-4 h-4" fill="none" stroke="currentColor" viewBox="0 0 24 24">
+                <path stroke-linecap="round" stroke-linejoin="round" stroke-width="2" d="M16 7a4 4 0 11-8 0 4 4 0 018 0zM12 14a7 7 0 00-7 7h14a7 7 0 00-7-7z"/>
+              </svg>
+              Author ID: ${post.authorId}
+            </span>
+            <span class="flex items-center gap-1">
+              <svg class="w-4 h-4" fill="none" stroke="currentColor" viewBox="0 0 24 24">
+                <path stroke-linecap="round" stroke-linejoin="round" stroke-width="2" d="M8 7V3m8 4V3m-9 8h10M5 21h14a2 2 0 002-2V7a2 2 0 00-2-2H5a2 2 0 00-2 2v12a2 2 0 002 2z"/>
+              </svg>
+              ${formatDate(post.createdAt)}
+            </span>
+          </div>
+        </div>
+        <div class="flex items-center gap-2">
+          <span class="px-3 py-1 bg-yellow-100 text-yellow-800 text-xs font-medium rounded-full">
+            Awaiting Review
+          </span>
+        </div>
+      </div>
+      
+      <div class="bg-gray-50 rounded-lg p-4 mb-6">
+        <p class="text-gray-700 leading-relaxed line-clamp-3">${post.excerpt || ""}</p>
+      </div>
+      
+      <div class="flex flex-col sm:flex-row gap-3">
+        <button 
+          onclick="changeStatus(${post.id}, 'APPROVED')"
+          class="flex-1 bg-gradient-to-r from-green-500 to-emerald-500 hover:from-green-600 hover:to-emerald-600 text-white px-6 py-3 rounded-lg font-semibold transition-all duration-200 flex items-center justify-center gap-2 group shadow-lg hover:shadow-xl transform hover:scale-105"
+        >
+          <svg class="w-5 h-5 group-hover:scale-110 transition-transform" fill="none" stroke="currentColor" viewBox="0 0 24 24">
+            <path stroke-linecap="round" stroke-linejoin="round" stroke-width="2" d="M9 12l2 2 4-4m6 2a9 9 0 11-18 0 9 9 0 0118 0z"/>
+          </svg>
+          Approve Post
+        </button>
+        
+        <button 
+          onclick="changeStatus(${post.id}, 'DRAFT')"
+          class="flex-1 bg-gradient-to-r from-red-500 to-pink-500 hover:from-red-600 hover:to-pink-600 text-white px-6 py-3 rounded-lg font-semibold transition-all duration-200 flex items-center justify-center gap-2 group shadow-lg hover:shadow-xl transform hover:scale-105"
+        >
+          <svg class="w-5 h-5 group-hover:scale-110 transition-transform" fill="none" stroke="currentColor" viewBox="0 0 24 24">
+            <path stroke-linecap="round" stroke-linejoin="round" stroke-width="2" d="M10 14l2-2m0 0l2-2m-2 2l-2-2m2 2l2 2m7-2a9 9 0 11-18 0 9 9 0 0118 0z"/>
+          </svg>
+          Revert to Draft
+        </button>
+      </div>
+    </div>
+  `;
+  return div;
+}
+
+function showEmptyState(container) {
+  container.innerHTML = `
+    <div class="text-center py-12">
+      <div class="w-16 h-16 bg-gray-100 rounded-full flex items-center justify-center mx-auto mb-4">
+        <svg class="w-8 h-8 text-gray-400" fill="none" stroke="currentColor" viewBox="0 0 24 24">
+          <path stroke-linecap="round" stroke-linejoin="round" stroke-width="2" d="M9 12h6m-6 4h6m2 5H7a2 2 0 01-2-2V5a2 2 0 012-2h5.586a1 1 0 01.707.293l5.414 5.414a1 1 0 01.293.707V19a2 2 0 01-2 2z"/>
+        </svg>
+      </div>
+      <h3 class="text-lg font-semibold text-gray-900 mb-2">No Posts for Review</h3>
+      <p class="text-gray-600">All posts have been reviewed or are in other stages.</p>
+    </div>
+  `;
+}
+
+// Fetches just the post that entered this list and puts its card on top,
+// where the newest change sorts
+async function insertPostCard(postId) {
+  if (document.getElementById(`post-${postId}`)) return;
+  const res = await fetch(`${API_BASE}/${postId}`);
+  if (!res.ok) return;
+  const post = await res.json();
+  // It may have moved on, or arrived from another event, while we fetched
+  if (post.status !== "REVIEW" || document.getElementById(`post-${postId}`)) return;
+  const container = document.getElementById("review-posts");
+  if (!container.querySelector("[id^='post-']")) container.innerHTML = "";
+  container.prepend(createPostCard(post));
+}
+
 async function changeStatus(postId, newStatus) {
   try {
     const reviewerId = 2; // Simulated reviewer ID
@@ -117,8 +140,8 @@ async function changeStatus(postId, newStatus) {
       const message = newStatus === 'APPROVED' ? 'Post approved successfully!' : 'Post reverted to draft.';
       showNotification(message, 'success');
       
-      // Reload posts
-      loadReviewPosts();
+      // Drop the card; the event stream keeps the rest of the page current
+      removePostCard(postId);
     } else {
       showNotification('Failed to update status. Please try again.', 'error');
     }
@@ -157,5 +180,42 @@ function formatDate(dateString) {
   });
 }
 
+// Drop a post's card without refetching the list
+function removePostCard(postId) {
+  const card = document.getElementById(`post-${postId}`);
+  if (!card) return;
+  card.remove();
+  // Once the last card is gone, show the empty state or the next posts
+  const container = document.getElementById("review-posts");
+  if (container.querySelector("[id^='post-']")) return;
+  if (document.getElementById("load-more")) {
+    loadReviewPosts();
+  } else {
+    showEmptyState(container);
+  }
+}
+
+const LIVE_COUNTS = {
+  REVIEW: "pending-count",
+};
+
+// Follow everyone's changes from the event stream instead of reloading the
+// list; a post entering this list is fetched on its own, and only a resync
+// reloads the whole page
+function followLiveEvents() {
+  subscribeToEvents({
+    "status-changed": (e) => {
+      if (e.status === "REVIEW") insertPostCard(e.postId);
+      else if (e.previousStatus === "REVIEW") removePostCard(e.postId);
+    },
+    deleted: (e) => removePostCard(e.postId),
+    "stats-delta": (delta) => applyStatsDelta(delta, LIVE_COUNTS),
+    resync: () => loadReviewPosts(),
+  });
+}
+
 // Load posts when page loads
-window.onload = loadReviewPosts;
+window.onload = () => {
+  loadReviewPosts();
+  followLiveEvents();
+};
@@ -26,7 +26,7 @@ function setUser() {
 async function loadPosts() {
   if (!currentUser.id || !currentUser.role) return;
 
-  const res = await fetch(API_BASE);
+  const res = await fetch(`${API_BASE}/summaries`);
   const posts = await res.json();
 
   const container = document.getElementById("posts");
@@ -42,7 +42,7 @@ async function loadPosts() {
     div.innerHTML = `
       <h2>${post.title} (${post.status})</h2>
       <p><strong>Author:</strong> ${post.authorName || 'Unknown'}</p>
-      <p>${post.content}</p>
+      <p>${post.excerpt || ""}</p>
       <button onclick="showHistory(${post.id})">🕓 View History</button>
       <button onclick="showComments(${post.id})">💬 View Comments</button>
     `;
@@ -0,0 +1,23 @@
+// Fetches one page of post summaries matching `query` (e.g. "status=REVIEW"),
+// continuing after `cursor` when given. Resolves to the summaries and the
+// cursor of the next page, which is null on the last one.
+async function fetchSummaryPage(query, cursor = null) {
+  const params = new URLSearchParams(query);
+  if (cursor) params.set("cursor", cursor);
+  const res = await fetch(`/api/posts/summaries?${params}`);
+  if (!res.ok) throw new Error(`Loading posts failed: ${res.status}`);
+  return { summaries: await res.json(), nextCursor: res.headers.get("X-Next-Cursor") };
+}
+
+// Puts a "Load more" button after `container` while there is a next page;
+// clicking it calls `loadPage(nextCursor)`
+function showLoadMore(container, nextCursor, loadPage) {
+  document.getElementById("load-more")?.remove();
+  if (!nextCursor) return;
+  const more = document.createElement("button");
+  more.id = "load-more";
+  more.className = "bg-blue-600 text-white px-4 py-2 rounded hover:bg-blue-700 mt-4";
+  more.textContent = "Load more";
+  more.onclick = () => loadPage(nextCursor);
+  container.after(more);
+}
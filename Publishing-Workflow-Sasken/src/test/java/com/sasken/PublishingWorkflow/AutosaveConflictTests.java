@@ -0,0 +1,116 @@
+package com.sasken.PublishingWorkflow;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import com.sasken.Model.BlogPost;
+import com.sasken.Service.BlogPostService;
+
+/**
+ * Two editors autosaving against the same version: the second gets 409
+ * with the first one's post instead of overwriting it.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class AutosaveConflictTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private BlogPostService blogPostService;
+
+	@Test
+	void secondEditorOnSameBaseGetsConflict() throws Exception {
+		BlogPost draft = BlogPost.builder().title("Draft").build();
+		draft.setContent("Content");
+		BlogPost post = blogPostService.createDraft(draft);
+		long base = post.getVersion();
+
+		appendToContent(post.getId(), base, " from A")
+				.andExpect(status().isNoContent())
+				.andExpect(header().string(HttpHeaders.ETAG, "\"" + (base + 1) + "\""));
+
+		appendToContent(post.getId(), base, " from B")
+				.andExpect(status().isConflict())
+				.andExpect(header().string(HttpHeaders.ETAG, "\"" + (base + 1) + "\""))
+				.andExpect(jsonPath("$.content").value("Content from A"))
+				.andExpect(jsonPath("$.version").value(base + 1));
+
+		assertThat(blogPostService.getPost(post.getId()).getContent()).isEqualTo("Content from A");
+	}
+
+	@Test
+	void concurrentEditorsOnSameBaseNeverLoseAnUpdate() throws Exception {
+		BlogPost draft = BlogPost.builder().title("Draft").build();
+		draft.setContent("Content");
+		BlogPost post = blogPostService.createDraft(draft);
+		long base = post.getVersion();
+		ExecutorService pool = Executors.newFixedThreadPool(2);
+		try {
+			CountDownLatch start = new CountDownLatch(1);
+			List<Future<Integer>> statuses = new ArrayList<>();
+			for (String editor : new String[] {" from A", " from B"}) {
+				statuses.add(pool.submit(() -> {
+					start.await();
+					return appendToContent(post.getId(), base, editor).andReturn().getResponse().getStatus();
+				}));
+			}
+			start.countDown();
+			List<Integer> results = new ArrayList<>();
+			for (Future<Integer> status : statuses) {
+				results.add(status.get(30, TimeUnit.SECONDS));
+			}
+
+			assertThat(results).containsExactlyInAnyOrder(204, 409);
+			BlogPost saved = blogPostService.getPost(post.getId());
+			assertThat(saved.getVersion()).isEqualTo(base + 1);
+			assertThat(saved.getContent()).isIn("Content from A", "Content from B");
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	@Test
+	void editPastTheEndIsBadRequest() throws Exception {
+		BlogPost draft = BlogPost.builder().title("Draft").build();
+		draft.setContent("Content");
+		BlogPost post = blogPostService.createDraft(draft);
+
+		// offset + deleteCount overflows int
+		mockMvc.perform(post("/api/posts/{postId}/autosave", post.getId())
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"baseVersion\":" + post.getVersion() + ",\"contentEdits\":[{\"offset\":1,"
+								+ "\"deleteCount\":" + Integer.MAX_VALUE + "}]}"))
+				.andExpect(status().isBadRequest());
+
+		assertThat(blogPostService.getPost(post.getId()).getContent()).isEqualTo("Content");
+	}
+
+	private ResultActions appendToContent(Long postId, long baseVersion, String text) throws Exception {
+		return mockMvc.perform(post("/api/posts/{postId}/autosave", postId)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"baseVersion\":" + baseVersion + ",\"contentEdits\":[{\"offset\":7,\"deleteCount\":0,"
+						+ "\"insert\":\"" + text + "\"}]}"));
+	}
+}
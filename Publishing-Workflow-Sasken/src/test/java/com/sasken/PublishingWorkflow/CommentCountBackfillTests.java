@@ -0,0 +1,69 @@
+package com.sasken.PublishingWorkflow;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.sasken.Model.BlogPost;
+import com.sasken.Model.ReviewComment;
+import com.sasken.Repository.BlogPostRepository;
+import com.sasken.Repository.ReviewCommentRepository;
+import com.sasken.Service.CommentCountBackfillService;
+
+/**
+ * Posts whose comment count was never set get it from their review
+ * comments; counts kept by the service are left alone.
+ */
+@SpringBootTest
+class CommentCountBackfillTests {
+
+	@Autowired
+	private CommentCountBackfillService backfillService;
+
+	@Autowired
+	private BlogPostRepository blogPostRepo;
+
+	@Autowired
+	private ReviewCommentRepository commentRepo;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void countsCommentsOfPostsWithoutCount() {
+		BlogPost legacy = blogPostRepo.save(BlogPost.builder().title("Legacy").build());
+		BlogPost uncommented = blogPostRepo.save(BlogPost.builder().title("Uncommented").build());
+		BlogPost maintained = blogPostRepo.save(BlogPost.builder().title("Maintained").build());
+		comment(legacy);
+		comment(legacy);
+		comment(maintained);
+		jdbcTemplate.update("UPDATE blog_post SET comment_count = NULL WHERE id IN (?, ?)",
+				legacy.getId(), uncommented.getId());
+		jdbcTemplate.update("UPDATE blog_post SET comment_count = 5 WHERE id = ?", maintained.getId());
+
+		backfillService.backfillCommentCounts();
+
+		assertThat(commentCount(legacy)).isEqualTo(2);
+		assertThat(commentCount(uncommented)).isZero();
+		assertThat(commentCount(maintained)).isEqualTo(5);
+	}
+
+	private Long commentCount(BlogPost post) {
+		return jdbcTemplate.queryForObject("SELECT comment_count FROM blog_post WHERE id = ?", Long.class,
+				post.getId());
+	}
+
+	private void comment(BlogPost post) {
+		commentRepo.save(ReviewComment.builder()
+				.postId(post.getId())
+				.commenterId(1L)
+				.comment("Looks good")
+				.commentedAt(LocalDateTime.now())
+				.build());
+	}
+}
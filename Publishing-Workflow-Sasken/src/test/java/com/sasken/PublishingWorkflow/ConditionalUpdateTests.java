@@ -0,0 +1,100 @@
+package com.sasken.PublishingWorkflow;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import com.sasken.Model.BlogPost;
+import com.sasken.Service.BlogPostService;
+
+/**
+ * Edits sent with If-Match only apply to the version they name; anything
+ * else is refused with 412 and leaves the post as it was.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class ConditionalUpdateTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private BlogPostService blogPostService;
+
+	@Test
+	void patchWithCurrentEtagApplies() throws Exception {
+		BlogPost post = blogPostService.createDraft(BlogPost.builder().title("Draft").build());
+
+		patchTitle(post.getId(), eTag(post), "Renamed")
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, "\"" + (post.getVersion() + 1) + "\""));
+
+		assertThat(blogPostService.getPost(post.getId()).getTitle()).isEqualTo("Renamed");
+	}
+
+	@Test
+	void patchWithStaleEtagIsRefused() throws Exception {
+		BlogPost post = blogPostService.createDraft(BlogPost.builder().title("Draft").build());
+		patchTitle(post.getId(), eTag(post), "First").andExpect(status().isOk());
+
+		patchTitle(post.getId(), eTag(post), "Second").andExpect(status().isPreconditionFailed());
+
+		assertThat(blogPostService.getPost(post.getId()).getTitle()).isEqualTo("First");
+	}
+
+	@Test
+	void putWithStaleEtagIsRefused() throws Exception {
+		BlogPost post = blogPostService.createDraft(BlogPost.builder().title("Draft").build());
+		patchTitle(post.getId(), eTag(post), "First").andExpect(status().isOk());
+
+		mockMvc.perform(put("/api/posts/{postId}", post.getId())
+						.header(HttpHeaders.IF_MATCH, eTag(post))
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"title\":\"Replaced\",\"content\":\"Replaced content\"}"))
+				.andExpect(status().isPreconditionFailed());
+
+		assertThat(blogPostService.getPost(post.getId()).getTitle()).isEqualTo("First");
+	}
+
+	@Test
+	void unparseableEtagNeverMatches() throws Exception {
+		BlogPost post = blogPostService.createDraft(BlogPost.builder().title("Draft").build());
+
+		patchTitle(post.getId(), "W/" + eTag(post), "Weak").andExpect(status().isPreconditionFailed());
+		patchTitle(post.getId(), "\"not-a-version\"", "Garbage").andExpect(status().isPreconditionFailed());
+
+		assertThat(blogPostService.getPost(post.getId()).getTitle()).isEqualTo("Draft");
+	}
+
+	@Test
+	void wildcardMatchesAnyVersion() throws Exception {
+		BlogPost post = blogPostService.createDraft(BlogPost.builder().title("Draft").build());
+		patchTitle(post.getId(), eTag(post), "First").andExpect(status().isOk());
+
+		patchTitle(post.getId(), "*", "Second").andExpect(status().isOk());
+
+		assertThat(blogPostService.getPost(post.getId()).getTitle()).isEqualTo("Second");
+	}
+
+	private ResultActions patchTitle(Long postId, String ifMatch, String title) throws Exception {
+		return mockMvc.perform(patch("/api/posts/{postId}", postId)
+				.header(HttpHeaders.IF_MATCH, ifMatch)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"title\":\"" + title + "\"}"));
+	}
+
+	private static String eTag(BlogPost post) {
+		return "\"" + post.getVersion() + "\"";
+	}
+}
@@ -0,0 +1,63 @@
+package com.sasken.PublishingWorkflow;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.sasken.Model.DeflatedText;
+
+class DeflatedTextTests {
+
+	@Test
+	void roundTripsLargeText() {
+		String text = longText(50_000);
+
+		DeflatedText stored = DeflatedText.fromBytes(DeflatedText.of(text).bytes());
+
+		assertThat(stored.text()).isEqualTo(text);
+		assertThat(stored.bytes().length).isLessThan(text.length());
+	}
+
+	@Test
+	void keepsTextNullAndEmpty() {
+		assertThat(DeflatedText.of(null)).isNull();
+		assertThat(DeflatedText.fromBytes(null)).isNull();
+		assertThat(DeflatedText.fromBytes(DeflatedText.of("").bytes()).text()).isEmpty();
+	}
+
+	@Test
+	void comparesWithoutInflating() {
+		String text = longText(20_000);
+		DeflatedText loaded = DeflatedText.fromBytes(DeflatedText.of(text).bytes());
+		DeflatedText reloaded = DeflatedText.fromBytes(DeflatedText.of(text).bytes());
+
+		assertThat(loaded).isEqualTo(reloaded).hasSameHashCodeAs(reloaded);
+		assertThat(loaded).isNotEqualTo(DeflatedText.of(text + "!"));
+		assertThat(ReflectionTestUtils.getField(loaded, "text")).isNull();
+		assertThat(ReflectionTestUtils.getField(reloaded, "text")).isNull();
+	}
+
+	@Test
+	void rejectsCorruptBytes() {
+		byte[] bytes = DeflatedText.of(longText(12_000)).bytes();
+		byte[] truncated = Arrays.copyOf(bytes, bytes.length / 2);
+
+		assertThatThrownBy(() -> DeflatedText.fromBytes(truncated).text()).isInstanceOf(UncheckedIOException.class);
+		assertThatThrownBy(() -> DeflatedText.fromBytes(new byte[] {1, 2, 3}).text())
+				.isInstanceOf(UncheckedIOException.class);
+	}
+
+	// Mixed scripts so multi-byte UTF-8 sequences cross the inflater's buffer boundaries
+	static String longText(int length) {
+		StringBuilder text = new StringBuilder(length);
+		for (int i = 0; text.length() < length; i++) {
+			text.append("Paragraph ").append(i).append(": café αβγ 文字 🚀\n");
+		}
+		return text.toString();
+	}
+}
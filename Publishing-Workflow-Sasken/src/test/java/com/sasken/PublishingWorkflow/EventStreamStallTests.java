@@ -0,0 +1,119 @@
+package com.sasken.PublishingWorkflow;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.annotation.DirtiesContext;
+
+import com.sasken.Service.EventStreamService;
+
+/**
+ * Clients that stop reading must not hold up the others: once their writes
+ * block past the write timeout they are dropped and the rest keep getting
+ * events, even when the stalled clients outnumber the dispatch threads and
+ * the threads the pool may add for them.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"app.events.dispatch-threads=2",
+		"app.events.client-buffer=100000",
+		"app.events.write-timeout=500",
+		"app.events.max-stall-threads=1",
+		"app.events.stall-check-interval=100"})
+@DirtiesContext
+class EventStreamStallTests {
+
+	private static final String PADDING = "x".repeat(64 * 1024);
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private EventStreamService events;
+
+	@Autowired
+	@Qualifier("eventDispatchExecutor")
+	private ThreadPoolTaskExecutor dispatchExecutor;
+
+	@Test
+	void stalledClientsDoNotBlockOthers() throws Exception {
+		List<Socket> stalled = new ArrayList<>();
+		try (Socket reader = open(0)) {
+			for (int i = 0; i < 2; i++) {
+				stalled.add(open(1024));
+			}
+			CompletableFuture<Boolean> marker = CompletableFuture.supplyAsync(() -> readUntil(reader, "\"marker\""));
+			awaitSubscribers(3);
+
+			// Far more than the socket buffers of the stalled clients can hold
+			for (int i = 0; i < 400; i++) {
+				events.publish(EventStreamService.STATS_DELTA, Map.of("padding", PADDING));
+			}
+			events.publish(EventStreamService.STATS_DELTA, Map.of("marker", true));
+
+			assertThat(marker.get(20, TimeUnit.SECONDS)).isTrue();
+			awaitSubscribers(1);
+			assertThat(dispatchExecutor.getMaxPoolSize()).isLessThanOrEqualTo(3);
+		} finally {
+			for (Socket socket : stalled) {
+				socket.close();
+			}
+			events.shutdown();
+		}
+	}
+
+	// Opens a stream that is never read past its headers when receiveBuffer is set
+	private Socket open(int receiveBuffer) throws IOException {
+		Socket socket = new Socket();
+		if (receiveBuffer > 0) {
+			socket.setReceiveBufferSize(receiveBuffer);
+		}
+		socket.connect(new InetSocketAddress("localhost", port));
+		OutputStream out = socket.getOutputStream();
+		out.write(("GET /api/events HTTP/1.1\r\nHost: localhost\r\nAccept: text/event-stream\r\n\r\n")
+				.getBytes(StandardCharsets.US_ASCII));
+		out.flush();
+		return socket;
+	}
+
+	private static boolean readUntil(Socket socket, String text) {
+		try {
+			BufferedReader in = new BufferedReader(
+					new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+			String line;
+			while ((line = in.readLine()) != null) {
+				if (line.contains(text)) {
+					return true;
+				}
+			}
+			return false;
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+	private void awaitSubscribers(int count) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 20000;
+		while (events.getSubscriberCount() != count && System.currentTimeMillis() < deadline) {
+			Thread.sleep(20);
+		}
+		assertThat(events.getSubscriberCount()).isEqualTo(count);
+	}
+}
@@ -0,0 +1,133 @@
+package com.sasken.PublishingWorkflow;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.sasken.Service.EventStreamService;
+
+/**
+ * Reconnecting streams get exactly the events they missed, or a resync
+ * event when those can no longer be replayed or the ID is not one this
+ * process issued.
+ */
+@SpringBootTest(properties = {"app.events.client-buffer=4", "app.events.replay-size=8"})
+@AutoConfigureMockMvc
+@DirtiesContext
+class EventStreamTests {
+
+	private static final Pattern EVENT = Pattern.compile("id:(\\S+)\nevent:(\\S+)\ndata:(.*)\n\n");
+
+	private record Event(String id, String name, String data) {
+	}
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private EventStreamService events;
+
+	@AfterEach
+	void closeStreams() {
+		events.shutdown();
+	}
+
+	@Test
+	void replaysEventsAfterLastEventId() throws Exception {
+		MvcResult live = open(get("/api/events"));
+		for (int i = 1; i <= 3; i++) {
+			events.publish(EventStreamService.STATUS_CHANGED, Map.of("postId", i));
+		}
+		List<Event> received = await(live, list -> list.size() == 3);
+
+		MvcResult resumed = open(get("/api/events").header("Last-Event-ID", received.get(0).id()));
+		List<Event> replayed = await(resumed, list -> list.size() == 2);
+
+		assertThat(replayed).containsExactlyElementsOf(received.subList(1, 3));
+	}
+
+	@Test
+	void sendsNothingWhenUpToDate() throws Exception {
+		MvcResult live = open(get("/api/events"));
+		events.publish(EventStreamService.STATUS_CHANGED, Map.of("postId", 1));
+		Event last = await(live, list -> list.size() == 1).get(0);
+
+		MvcResult resumed = open(get("/api/events").header("Last-Event-ID", last.id()));
+		events.publish(EventStreamService.STATUS_CHANGED, Map.of("postId", 2));
+
+		assertThat(await(resumed, list -> list.size() == 1))
+				.extracting(Event::data).containsExactly("{\"postId\":2}");
+	}
+
+	@Test
+	void resyncsWhenGapExceedsReplay() throws Exception {
+		MvcResult live = open(get("/api/events"));
+		events.publish(EventStreamService.STATUS_CHANGED, Map.of("postId", 0));
+		Event first = await(live, list -> list.size() == 1).get(0);
+		for (int i = 1; i <= 10; i++) {
+			events.publish(EventStreamService.STATUS_CHANGED, Map.of("postId", i));
+		}
+
+		assertThat(await(open(get("/api/events").header("Last-Event-ID", first.id())), list -> !list.isEmpty()))
+				.extracting(Event::name).containsExactly(EventStreamService.RESYNC);
+	}
+
+	@Test
+	void resyncsOnIdsFromAnotherProcess() throws Exception {
+		MvcResult live = open(get("/api/events"));
+		events.publish(EventStreamService.STATUS_CHANGED, Map.of("postId", 1));
+		Event current = await(live, list -> list.size() == 1).get(0);
+		String epoch = current.id().substring(0, current.id().lastIndexOf('-'));
+
+		// Before a restart the sequence may have been far ahead of, or behind, this one
+		for (String lastEventId : new String[] {"0-1", epoch + "0-1", epoch + "-999999", "17", "garbage"}) {
+			List<Event> received = await(open(get("/api/events").header("Last-Event-ID", lastEventId)),
+					list -> !list.isEmpty());
+			assertThat(received).extracting(Event::name).as(lastEventId).containsExactly(EventStreamService.RESYNC);
+			// Resuming from the resync event's ID picks up the live sequence
+			assertThat(received.get(0).id()).isEqualTo(current.id());
+		}
+	}
+
+	private MvcResult open(MockHttpServletRequestBuilder request) throws Exception {
+		return mockMvc.perform(request).andExpect(request().asyncStarted()).andReturn();
+	}
+
+	// Waits for the events written to a stream to satisfy the condition
+	private static List<Event> await(MvcResult stream, Predicate<List<Event>> condition) throws Exception {
+		long deadline = System.currentTimeMillis() + 5000;
+		List<Event> received = parse(stream);
+		while (!condition.test(received) && System.currentTimeMillis() < deadline) {
+			Thread.sleep(20);
+			received = parse(stream);
+		}
+		assertThat(condition.test(received)).as("events received: %s", received).isTrue();
+		return received;
+	}
+
+	private static List<Event> parse(MvcResult stream) throws Exception {
+		List<Event> received = new ArrayList<>();
+		Matcher matcher = EVENT.matcher(stream.getResponse().getContentAsString());
+		while (matcher.find()) {
+			received.add(new Event(matcher.group(1), matcher.group(2), matcher.group(3)));
+		}
+		return received;
+	}
+}
@@ -0,0 +1,206 @@
+package com.sasken.PublishingWorkflow;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.sasken.Controller.FileResponder;
+
+class FileResponderTests {
+
+	@TempDir
+	Path dir;
+
+	private Path file;
+	private byte[] content;
+
+	@BeforeEach
+	void writeFile() throws IOException {
+		content = new byte[100];
+		for (int i = 0; i < content.length; i++) {
+			content[i] = (byte) i;
+		}
+		file = Files.write(dir.resolve("clip.mp4"), content);
+	}
+
+	@Test
+	void servesWholeFileWithValidators() throws IOException {
+		MockHttpServletResponse response = serve(new MockHttpServletRequest("GET", "/"));
+
+		assertThat(response.getStatus()).isEqualTo(200);
+		assertThat(response.getContentAsByteArray()).isEqualTo(content);
+		assertThat(response.getHeader(HttpHeaders.ETAG)).isNotNull();
+		assertThat(response.getHeader(HttpHeaders.ACCEPT_RANGES)).isEqualTo("bytes");
+	}
+
+	@Test
+	void answersMatchingEtagWithNotModified() throws IOException {
+		String etag = serve(new MockHttpServletRequest("GET", "/")).getHeader(HttpHeaders.ETAG);
+
+		MockHttpServletResponse response = serve(request(HttpHeaders.IF_NONE_MATCH, etag));
+
+		assertThat(response.getStatus()).isEqualTo(304);
+		assertThat(response.getContentAsByteArray()).isEmpty();
+	}
+
+	@Test
+	void servesSingleRangeAsPartialContent() throws IOException {
+		MockHttpServletResponse response = serve(request(HttpHeaders.RANGE, "bytes=10-19"));
+
+		assertThat(response.getStatus()).isEqualTo(206);
+		assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 10-19/100");
+		assertThat(response.getContentLengthLong()).isEqualTo(10);
+		assertThat(response.getContentAsByteArray()).isEqualTo(Arrays.copyOfRange(content, 10, 20));
+	}
+
+	@Test
+	void servesSuffixRange() throws IOException {
+		MockHttpServletResponse response = serve(request(HttpHeaders.RANGE, "bytes=-5"));
+
+		assertThat(response.getStatus()).isEqualTo(206);
+		assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 95-99/100");
+		assertThat(response.getContentAsByteArray()).isEqualTo(Arrays.copyOfRange(content, 95, 100));
+	}
+
+	@Test
+	void servesMultipleRangesAsMultipart() throws IOException {
+		MockHttpServletResponse response = serve(request(HttpHeaders.RANGE, "bytes=0-3,50-53"));
+
+		assertThat(response.getStatus()).isEqualTo(206);
+		assertThat(response.getContentType()).startsWith("multipart/byteranges; boundary=");
+		String boundary = response.getContentType().substring(response.getContentType().indexOf('=') + 1);
+		String body = new String(response.getContentAsByteArray(), StandardCharsets.ISO_8859_1);
+		assertThat(body).contains("Content-Range: bytes 0-3/100\r\n\r\n"
+				+ new String(Arrays.copyOfRange(content, 0, 4), StandardCharsets.ISO_8859_1));
+		assertThat(body).contains("Content-Range: bytes 50-53/100\r\n\r\n"
+				+ new String(Arrays.copyOfRange(content, 50, 54), StandardCharsets.ISO_8859_1));
+		assertThat(body).endsWith("\r\n--" + boundary + "--\r\n");
+	}
+
+	@Test
+	void servesRangesCoveringTheFileOnceAsWhole() throws IOException {
+		MockHttpServletResponse response = serve(request(HttpHeaders.RANGE, "bytes=0-,0-,0-,0-"));
+
+		assertThat(response.getStatus()).isEqualTo(200);
+		assertThat(response.getContentAsByteArray()).isEqualTo(content);
+	}
+
+	@Test
+	void mergesOverlappingRanges() throws IOException {
+		MockHttpServletResponse response = serve(request(HttpHeaders.RANGE, "bytes=10-19,15-24,25-29,60-64"));
+
+		assertThat(response.getStatus()).isEqualTo(206);
+		String body = new String(response.getContentAsByteArray(), StandardCharsets.ISO_8859_1);
+		assertThat(body).contains("Content-Range: bytes 10-29/100\r\n\r\n"
+				+ new String(Arrays.copyOfRange(content, 10, 30), StandardCharsets.ISO_8859_1));
+		assertThat(body).contains("Content-Range: bytes 60-64/100");
+		assertThat(body.split("Content-Range:")).hasSize(3);
+	}
+
+	@Test
+	void mergedRangesBecomeSinglePart() throws IOException {
+		MockHttpServletResponse response = serve(request(HttpHeaders.RANGE, "bytes=0-9,5-14"));
+
+		assertThat(response.getStatus()).isEqualTo(206);
+		assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 0-14/100");
+		assertThat(response.getContentAsByteArray()).isEqualTo(Arrays.copyOfRange(content, 0, 15));
+	}
+
+	@Test
+	void rejectsUnsatisfiableRange() throws IOException {
+		MockHttpServletResponse response = serve(request(HttpHeaders.RANGE, "bytes=100-"));
+
+		assertThat(response.getStatus()).isEqualTo(416);
+		assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes */100");
+	}
+
+	@Test
+	void rejectsMalformedRange() throws IOException {
+		assertThat(serve(request(HttpHeaders.RANGE, "bytes=oops")).getStatus()).isEqualTo(416);
+	}
+
+	@Test
+	void honoursRangeOnlyWhenIfRangeMatches() throws IOException {
+		String etag = serve(new MockHttpServletRequest("GET", "/")).getHeader(HttpHeaders.ETAG);
+
+		MockHttpServletRequest current = request(HttpHeaders.RANGE, "bytes=0-9");
+		current.addHeader(HttpHeaders.IF_RANGE, etag);
+		assertThat(serve(current).getStatus()).isEqualTo(206);
+
+		MockHttpServletRequest stale = request(HttpHeaders.RANGE, "bytes=0-9");
+		stale.addHeader(HttpHeaders.IF_RANGE, "\"stale\"");
+		MockHttpServletResponse response = serve(stale);
+		assertThat(response.getStatus()).isEqualTo(200);
+		assertThat(response.getContentAsByteArray()).isEqualTo(content);
+	}
+
+	@Test
+	void handsStableFilesToSendfile() throws IOException {
+		MockHttpServletRequest request = sendfileRequest();
+
+		MockHttpServletResponse response = serve(request);
+
+		assertThat(response.getContentAsByteArray()).isEmpty();
+		assertThat(request.getAttribute("org.apache.tomcat.sendfile.filename"))
+				.isEqualTo(file.toAbsolutePath().toString());
+	}
+
+	@Test
+	void streamsReplaceableFilesBeforeReturning() throws IOException {
+		MockHttpServletRequest request = sendfileRequest();
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		FileResponder.serve(file, FileResponder.IMMUTABLE_CACHE_CONTROL, true, request, response);
+		Files.delete(file);
+
+		assertThat(response.getContentAsByteArray()).isEqualTo(content);
+		assertThat(request.getAttribute("org.apache.tomcat.sendfile.filename")).isNull();
+	}
+
+	@Test
+	void missingReplaceableFileWritesNothing() throws IOException {
+		Files.delete(file);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		assertThatThrownBy(() -> FileResponder.serve(file, FileResponder.IMMUTABLE_CACHE_CONTROL, true,
+				new MockHttpServletRequest("GET", "/"), response)).isInstanceOf(NoSuchFileException.class);
+		assertThat(response.getHeaderNames()).isEmpty();
+	}
+
+	@Test
+	void refusesNamesOutsideBaseDirectory() {
+		assertThat(FileResponder.resolve(dir, "../secret")).isNull();
+		assertThat(FileResponder.resolve(dir, "clip.mp4")).isEqualTo(file.toAbsolutePath().normalize());
+	}
+
+	private static MockHttpServletRequest sendfileRequest() {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+		request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+		return request;
+	}
+
+	private static MockHttpServletRequest request(String header, String value) {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+		request.addHeader(header, value);
+		return request;
+	}
+
+	private MockHttpServletResponse serve(MockHttpServletRequest request) throws IOException {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		FileResponder.serve(file, FileResponder.IMMUTABLE_CACHE_CONTROL, request, response);
+		return response;
+	}
+}
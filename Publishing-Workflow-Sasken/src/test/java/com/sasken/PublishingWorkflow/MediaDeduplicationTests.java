@@ -0,0 +1,111 @@
+package com.sasken.PublishingWorkflow;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.sasken.Config.MetricsConfig;
+import com.sasken.Model.BlogPost;
+import com.sasken.Model.Media;
+import com.sasken.Repository.BlogPostRepository;
+import com.sasken.Repository.MediaRepository;
+import com.sasken.Service.MediaService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Uploads of identical content share one stored file, which must outlive
+ * every row but the last and is only counted as written once.
+ */
+@SpringBootTest(properties = "app.upload.max-size=1024")
+class MediaDeduplicationTests {
+
+	@TempDir
+	static Path uploadDir;
+
+	@DynamicPropertySource
+	static void uploadProperties(DynamicPropertyRegistry registry) {
+		registry.add("app.upload.dir", uploadDir::toString);
+	}
+
+	@Autowired
+	private MediaService mediaService;
+
+	@Autowired
+	private MediaRepository mediaRepo;
+
+	@Autowired
+	private BlogPostRepository blogPostRepo;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Test
+	void sharedFileSurvivesUntilLastCopyIsDeleted() throws IOException {
+		BlogPost post = blogPostRepo.save(BlogPost.builder().title("Attachments").build());
+		byte[] content = "%PDF-1.4 the same document uploaded twice".getBytes(StandardCharsets.US_ASCII);
+
+		Media first = upload(content, "first.pdf", post);
+		Media second = upload(content, "second.pdf", post);
+
+		assertThat(second.getId()).isNotEqualTo(first.getId());
+		assertThat(second.getFileName()).isEqualTo(first.getFileName());
+		Path stored = Paths.get(first.getFilePath());
+		assertThat(stored).exists();
+		// Only the shared blob is left in the upload directory, no staged files
+		try (var files = Files.list(uploadDir)) {
+			assertThat(files.filter(Files::isRegularFile)
+					.filter(file -> file.equals(stored) || file.getFileName().toString().startsWith(".upload-")))
+					.containsExactly(stored);
+		}
+
+		mediaService.deleteMedia(first.getId());
+		assertThat(mediaRepo.findById(first.getId())).isEmpty();
+		assertThat(stored).exists();
+
+		mediaService.deleteMedia(second.getId());
+		assertThat(stored).doesNotExist();
+	}
+
+	@Test
+	void countsOnlyBytesThatAreStored() throws IOException {
+		BlogPost post = blogPostRepo.save(BlogPost.builder().title("Attachments").build());
+		byte[] content = "%PDF-1.4 a document counted once".getBytes(StandardCharsets.US_ASCII);
+		double before = uploadBytesWritten();
+
+		upload(content, "original.pdf", post);
+		upload(content, "duplicate.pdf", post);
+		byte[] oversized = ("%PDF-1.4 " + "x".repeat(2048)).getBytes(StandardCharsets.US_ASCII);
+		assertThatThrownBy(() -> upload(oversized, "oversized.pdf", post))
+				.isInstanceOf(IOException.class)
+				.hasMessageContaining("exceeds");
+
+		assertThat(uploadBytesWritten() - before).isEqualTo(content.length);
+	}
+
+	private double uploadBytesWritten() {
+		return meterRegistry.get(MetricsConfig.MEDIA_BYTES_WRITTEN).tag("kind", "upload").counter().count();
+	}
+
+	private Media upload(byte[] content, String fileName, BlogPost post) throws IOException {
+		MediaService.StagedUpload staged = mediaService.stageUpload(new ByteArrayInputStream(content), fileName);
+		try {
+			return mediaService.completeUpload(staged, post, null, null);
+		} finally {
+			mediaService.discardUpload(staged);
+		}
+	}
+}
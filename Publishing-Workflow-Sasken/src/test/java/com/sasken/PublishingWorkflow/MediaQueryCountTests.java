@@ -0,0 +1,135 @@
+package com.sasken.PublishingWorkflow;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDateTime;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import com.sasken.Model.BlogPost;
+import com.sasken.Model.Media;
+import com.sasken.Model.MediaStatus;
+import com.sasken.Model.PostStatus;
+import com.sasken.Repository.BlogPostRepository;
+import com.sasken.Repository.MediaRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Each media listing must cost one query however many posts its rows
+ * belong to.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class MediaQueryCountTests {
+
+	private static final int POSTS = 5;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private BlogPostRepository blogPostRepo;
+
+	@Autowired
+	private MediaRepository mediaRepo;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Statistics statistics;
+	private Long firstPostId;
+	private Long firstMediaId;
+
+	@BeforeAll
+	void createMedia() {
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		LocalDateTime now = LocalDateTime.now();
+		for (int i = 0; i < POSTS; i++) {
+			BlogPost post = BlogPost.builder()
+					.title("Post " + i)
+					.status(PostStatus.PUBLISHED)
+					.authorId(1L)
+					.authorName("Author")
+					.commentCount(0L)
+					.createdAt(now)
+					.updatedAt(now)
+					.build();
+			post.setContent("Content of post " + i);
+			post = blogPostRepo.save(post);
+			if (firstPostId == null) {
+				firstPostId = post.getId();
+			}
+			for (String fileType : new String[] {"image", "image", "video", "document"}) {
+				Media media = mediaRepo.save(Media.builder()
+						.fileName(fileType + "-" + i)
+						.fileType(fileType)
+						.status(MediaStatus.READY)
+						.blogPost(post)
+						.uploadedAt(now)
+						.updatedAt(now)
+						.build());
+				if (firstMediaId == null) {
+					firstMediaId = media.getId();
+				}
+			}
+		}
+	}
+
+	@BeforeEach
+	void clearStatistics() {
+		statistics.clear();
+	}
+
+	@Test
+	void mediaByPostIsOneQuery() throws Exception {
+		mockMvc.perform(get("/api/media/post/{id}", firstPostId))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(4))
+				.andExpect(jsonPath("$[0].blogPostId").value(firstPostId))
+				.andExpect(jsonPath("$[0].blogPost").doesNotExist());
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	@Test
+	void recentImagesAreOneQuery() throws Exception {
+		expectPostsLoaded(mockMvc.perform(get("/api/media/recent/images")), POSTS * 2);
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	@Test
+	void recentVideosAreOneQuery() throws Exception {
+		expectPostsLoaded(mockMvc.perform(get("/api/media/recent/videos")), POSTS);
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	@Test
+	void metadataUpdateIsOneSelectAndOneUpdate() throws Exception {
+		mockMvc.perform(put("/api/media/{id}/metadata", firstMediaId).param("altText", "alt").param("caption", "caption"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.blogPost.id").value(firstPostId));
+		// One select with the post joined, then the update
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+	}
+
+	private static void expectPostsLoaded(ResultActions result, int count) throws Exception {
+		result.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(count))
+				.andExpect(jsonPath("$[*].blogPostTitle").isNotEmpty());
+	}
+}
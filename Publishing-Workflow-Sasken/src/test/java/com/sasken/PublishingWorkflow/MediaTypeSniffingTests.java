@@ -0,0 +1,73 @@
+package com.sasken.PublishingWorkflow;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.sasken.Service.MediaService;
+
+/**
+ * ISO base media files are only accepted as video when their major brand
+ * names an MP4 or QuickTime movie.
+ */
+@SpringBootTest
+class MediaTypeSniffingTests {
+
+	@TempDir
+	static Path uploadDir;
+
+	@DynamicPropertySource
+	static void uploadProperties(DynamicPropertyRegistry registry) {
+		registry.add("app.upload.dir", uploadDir::toString);
+	}
+
+	@Autowired
+	private MediaService mediaService;
+
+	@ParameterizedTest
+	@ValueSource(strings = {"isom", "iso2", "mp41", "mp42", "avc1", "M4V "})
+	void acceptsMp4Brands(String brand) throws IOException {
+		assertThat(stagedType(brand, "clip.mp4")).isEqualTo("video/mp4");
+	}
+
+	@Test
+	void acceptsQuickTime() throws IOException {
+		assertThat(stagedType("qt  ", "clip.mov")).isEqualTo("video/mov");
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {"heic", "mif1", "avif", "M4A ", "3gp4", "crx "})
+	void rejectsOtherBrands(String brand) {
+		assertThatThrownBy(() -> stagedType(brand, "clip.mp4"))
+				.isInstanceOf(IOException.class)
+				.hasMessage("File type not allowed");
+	}
+
+	private String stagedType(String brand, String fileName) throws IOException {
+		byte[] content = ByteBuffer.allocate(64)
+				.putInt(24)
+				.put("ftyp".getBytes(StandardCharsets.US_ASCII))
+				.put(brand.getBytes(StandardCharsets.US_ASCII))
+				.array();
+		MediaService.StagedUpload staged = mediaService.stageUpload(new ByteArrayInputStream(content), fileName);
+		try {
+			return staged.mimeType();
+		} finally {
+			mediaService.discardUpload(staged);
+		}
+	}
+}
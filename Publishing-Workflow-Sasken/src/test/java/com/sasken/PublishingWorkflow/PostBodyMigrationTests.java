@@ -0,0 +1,156 @@
+package com.sasken.PublishingWorkflow;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sasken.Model.BlogPost;
+import com.sasken.Model.DeflatedText;
+import com.sasken.Repository.BlogPostRepository;
+import com.sasken.Service.BlogPostService;
+import com.sasken.Service.PostBodyMigrationService;
+
+/**
+ * Post bodies are stored deflated, loaded without being inflated, and moved
+ * over from the plain columns of older schemas on startup. The excerpt
+ * always comes from the content.
+ */
+@SpringBootTest
+class PostBodyMigrationTests {
+
+	@Autowired
+	private BlogPostService blogPostService;
+
+	@Autowired
+	private BlogPostRepository blogPostRepo;
+
+	@Autowired
+	private PostBodyMigrationService migrationService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Test
+	void storesLargeBodiesIntact() {
+		String content = DeflatedTextTests.longText(30_000);
+		String richContent = "<p>" + DeflatedTextTests.longText(15_000) + "</p>";
+		BlogPost post = new BlogPost();
+		post.setContent(content);
+		post.setRichContent(richContent);
+		Long postId = blogPostRepo.save(post).getId();
+
+		BlogPost loaded = blogPostRepo.findById(postId).orElseThrow();
+
+		assertThat(loaded.getContent()).isEqualTo(content);
+		assertThat(loaded.getRichContent()).isEqualTo(richContent);
+		assertThat(loaded.getExcerpt()).hasSize(BlogPost.EXCERPT_LENGTH + 3).endsWith("...");
+	}
+
+	@Test
+	void savingOtherFieldsLeavesBodiesDeflated() {
+		BlogPost saved = new BlogPost();
+		saved.setContent(DeflatedTextTests.longText(20_000));
+		Long postId = blogPostRepo.save(saved).getId();
+		byte[] stored = storedContent(postId);
+
+		BlogPost renamed = transactionTemplate.execute(status -> {
+			BlogPost post = blogPostRepo.findById(postId).orElseThrow();
+			post.setTitle("Renamed");
+			blogPostRepo.flush();
+			return post;
+		});
+		BlogPost untouched = transactionTemplate.execute(status -> {
+			BlogPost post = blogPostRepo.findById(postId).orElseThrow();
+			blogPostRepo.flush();
+			return post;
+		});
+
+		assertThat(inflatedText(renamed)).isNull();
+		assertThat(inflatedText(untouched)).isNull();
+		assertThat(storedContent(postId)).isEqualTo(stored);
+		// The first transaction bumped the version; the second wrote nothing
+		assertThat(untouched.getVersion()).isEqualTo(renamed.getVersion());
+		assertThat(jdbcTemplate.queryForObject("SELECT version FROM blog_post WHERE id = ?", Long.class, postId))
+				.isEqualTo(renamed.getVersion());
+	}
+
+	@Test
+	void movesLegacyBodiesIntoDeflatedColumns() {
+		String content = DeflatedTextTests.longText(12_000);
+		Long legacyId = blogPostService.createDraft(new BlogPost()).getId();
+		Long plainId = blogPostService.createDraft(new BlogPost()).getId();
+		BlogPost current = new BlogPost();
+		current.setContent("Already deflated");
+		Long currentId = blogPostService.createDraft(current).getId();
+		jdbcTemplate.execute("ALTER TABLE blog_post ADD COLUMN content CLOB");
+		jdbcTemplate.execute("ALTER TABLE blog_post ADD COLUMN rich_content CLOB");
+		try {
+			jdbcTemplate.update("UPDATE blog_post SET content = ?, rich_content = ?, content_deflated = NULL,"
+					+ " rich_content_deflated = NULL, excerpt = NULL WHERE id = ?", content, "<p>Rich</p>", legacyId);
+			jdbcTemplate.update("UPDATE blog_post SET content = ?, content_deflated = NULL, excerpt = NULL"
+					+ " WHERE id = ?", "Short body", plainId);
+
+			migrationService.migrateLegacyBodies();
+
+			assertThat(jdbcTemplate.queryForObject(
+					"SELECT COUNT(*) FROM blog_post WHERE content IS NOT NULL OR rich_content IS NOT NULL",
+					Integer.class)).isZero();
+		} finally {
+			jdbcTemplate.execute("ALTER TABLE blog_post DROP COLUMN content");
+			jdbcTemplate.execute("ALTER TABLE blog_post DROP COLUMN rich_content");
+		}
+
+		BlogPost legacy = blogPostRepo.findById(legacyId).orElseThrow();
+		assertThat(legacy.getContent()).isEqualTo(content);
+		assertThat(legacy.getRichContent()).isEqualTo("<p>Rich</p>");
+		assertThat(legacy.getExcerpt()).isEqualTo(BlogPost.excerptOf(content));
+		BlogPost plain = blogPostRepo.findById(plainId).orElseThrow();
+		assertThat(plain.getContent()).isEqualTo("Short body");
+		assertThat(plain.getRichContent()).isNull();
+		assertThat(plain.getExcerpt()).isEqualTo("Short body");
+		assertThat(blogPostRepo.findById(currentId).orElseThrow().getContent()).isEqualTo("Already deflated");
+	}
+
+	@Test
+	void skipsSchemasWithoutLegacyColumns() {
+		BlogPost post = new BlogPost();
+		post.setContent("Untouched");
+		Long postId = blogPostService.createDraft(post).getId();
+		byte[] stored = storedContent(postId);
+
+		migrationService.migrateLegacyBodies();
+
+		assertThat(storedContent(postId)).isEqualTo(stored);
+	}
+
+	@Test
+	void excerptCannotBeSetFromJson() throws Exception {
+		BlogPost post = objectMapper.readValue("{\"title\":\"Body\",\"content\":\"Real body\",\"excerpt\":\"Injected\"}",
+				BlogPost.class);
+
+		assertThat(post.getExcerpt()).isEqualTo("Real body");
+		assertThat(objectMapper.writeValueAsString(post)).contains("\"excerpt\":\"Real body\"");
+	}
+
+	private byte[] storedContent(Long postId) {
+		return jdbcTemplate.queryForObject("SELECT content_deflated FROM blog_post WHERE id = ?", byte[].class,
+				postId);
+	}
+
+	private static Object inflatedText(BlogPost post) {
+		DeflatedText body = (DeflatedText) ReflectionTestUtils.getField(post, "contentBody");
+		return ReflectionTestUtils.getField(body, "text");
+	}
+}
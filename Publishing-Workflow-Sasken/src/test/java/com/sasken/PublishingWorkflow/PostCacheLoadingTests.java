@@ -0,0 +1,109 @@
+package com.sasken.PublishingWorkflow;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sasken.Config.CacheConfig;
+import com.sasken.Model.BlogPost;
+import com.sasken.Model.PostStatus;
+import com.sasken.Repository.BlogPostRepository;
+import com.sasken.Service.BlogPostService;
+
+/**
+ * A failed load of a cached post is reported to its caller and retried by
+ * the next one, whatever kind of failure it was. The cache is bounded by
+ * the size of the bodies it holds.
+ */
+class PostCacheLoadingTests {
+
+	private final AtomicInteger loads = new AtomicInteger();
+	private BlogPostService blogPostService;
+	private Throwable failure;
+
+	@BeforeEach
+	void createService() {
+		BlogPost post = BlogPost.builder()
+				.id(1L)
+				.title("Cached")
+				.status(PostStatus.DRAFT)
+				.authorId(1L)
+				.authorName("Author")
+				.build();
+		post.setContent("Content");
+		BlogPostRepository repository = (BlogPostRepository) Proxy.newProxyInstance(
+				getClass().getClassLoader(), new Class<?>[] {BlogPostRepository.class},
+				(proxy, method, args) -> {
+					if (!method.getName().equals("findById")) {
+						throw new UnsupportedOperationException(method.getName());
+					}
+					if (loads.incrementAndGet() == 1 && failure != null) {
+						throw failure;
+					}
+					return Optional.of(post);
+				});
+		blogPostService = new BlogPostService();
+		ReflectionTestUtils.setField(blogPostService, "blogPostRepo", repository);
+		ReflectionTestUtils.setField(blogPostService, "postCache", Caffeine.newBuilder().buildAsync());
+	}
+
+	@Test
+	void retriesAfterError() {
+		failure = new StackOverflowError();
+
+		assertThatThrownBy(() -> blogPostService.getPost(1L)).isInstanceOf(StackOverflowError.class);
+
+		BlogPost post = assertTimeoutPreemptively(Duration.ofSeconds(5), () -> blogPostService.getPost(1L));
+		assertThat(post.getTitle()).isEqualTo("Cached");
+		assertThat(loads).hasValue(2);
+	}
+
+	@Test
+	void retriesAfterRuntimeException() {
+		failure = new IllegalStateException("Database unavailable");
+
+		assertThatThrownBy(() -> blogPostService.getPost(1L)).isInstanceOf(IllegalStateException.class);
+
+		assertThat(blogPostService.getPost(1L).getTitle()).isEqualTo("Cached");
+		assertThat(loads).hasValue(2);
+	}
+
+	@Test
+	void weighsPostsByTheirBodies() {
+		AsyncCache<Long, BlogPost> cache = new CacheConfig().blogPostCache(DataSize.ofKilobytes(64),
+				Duration.ofMinutes(1));
+		BlogPost small = BlogPost.builder().id(2L).title("Small").build();
+		small.setContent("Short");
+		BlogPost large = BlogPost.builder().id(3L).title("Large").build();
+		// Deflates to almost nothing but takes 80 KB once read
+		large.setContent("x".repeat(40_000));
+
+		cache.put(2L, CompletableFuture.completedFuture(small));
+		cache.put(3L, CompletableFuture.completedFuture(large));
+		cache.synchronous().cleanUp();
+
+		assertThat(cache.synchronous().getIfPresent(2L)).isSameAs(small);
+		assertThat(cache.synchronous().getIfPresent(3L)).isNull();
+	}
+
+	@Test
+	void loadsOnceWhenCached() {
+		blogPostService.getPost(1L);
+		blogPostService.getPost(1L);
+
+		assertThat(loads).hasValue(1);
+	}
+}
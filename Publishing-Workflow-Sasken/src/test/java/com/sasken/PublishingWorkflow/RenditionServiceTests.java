@@ -0,0 +1,142 @@
+package com.sasken.PublishingWorkflow;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.sasken.Service.RenditionService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class RenditionServiceTests {
+
+	@TempDir
+	Path uploadDir;
+
+	private RenditionService renditions;
+
+	@BeforeEach
+	void writeImages() throws IOException {
+		writePng("a.png");
+		writePng("b.png");
+	}
+
+	@Test
+	void servesOriginalWhenRenditionExceedsBudget() throws IOException {
+		start(1);
+
+		try (RenditionService.Lease lease = renditions.openRendition("a.png", 160)) {
+			assertThat(lease.path()).isEqualTo(uploadDir.resolve("a.png").toAbsolutePath().normalize());
+			assertThat(uploadDir.resolve("renditions/160/a.png")).doesNotExist();
+		}
+	}
+
+	@Test
+	void neverEvictsRenditionItJustWrote() throws IOException {
+		start(renditionSize() + 1);
+
+		Path first = serveOnce(renditions, "a.png");
+		try (RenditionService.Lease lease = renditions.openRendition("b.png", 160)) {
+			assertThat(lease.path()).exists();
+		}
+		assertThat(first).doesNotExist();
+	}
+
+	@Test
+	void countsRenditionsFoundOnDiskAgainstBudget() throws IOException {
+		long size = renditionSize();
+		start(size + 1);
+		// Written behind the index's back, as another instance would
+		Path foreign = uploadDir.resolve("renditions/160/a.png");
+		Files.createDirectories(foreign.getParent());
+		Files.copy(uploadDir.resolve("renditions-probe/renditions/160/a.png"), foreign);
+
+		try (RenditionService.Lease lease = renditions.openRendition("a.png", 160)) {
+			assertThat(lease.path()).isEqualTo(foreign.toAbsolutePath().normalize());
+		}
+		assertThat(ReflectionTestUtils.getField(renditions, "totalBytes")).isEqualTo(size);
+
+		serveOnce(renditions, "b.png");
+		assertThat(foreign).doesNotExist();
+	}
+
+	@Test
+	void neverEvictsRenditionWhileLeased() throws IOException {
+		writePng("c.png");
+		start(renditionSize() + 1);
+
+		Path first;
+		try (RenditionService.Lease lease = renditions.openRendition("a.png", 160)) {
+			first = lease.path();
+			serveOnce(renditions, "b.png");
+
+			assertThat(first).exists();
+		}
+
+		serveOnce(renditions, "c.png");
+		assertThat(first).doesNotExist();
+	}
+
+	@Test
+	void rendersAgainWhenFileVanishedFromIndex() throws IOException {
+		start(Long.MAX_VALUE);
+		Path first = serveOnce(renditions, "a.png");
+		Files.delete(first);
+
+		try (RenditionService.Lease lease = renditions.openRendition("a.png", 160)) {
+			assertThat(lease.path()).isEqualTo(first).exists();
+		}
+	}
+
+	// Renders a.png once into a separate directory to learn its size
+	private long renditionSize() throws IOException {
+		Path probeDir = uploadDir.resolve("renditions-probe");
+		Files.createDirectories(probeDir);
+		Files.copy(uploadDir.resolve("a.png"), probeDir.resolve("a.png"));
+		RenditionService probe = service(probeDir, Long.MAX_VALUE);
+		return Files.size(serveOnce(probe, "a.png"));
+	}
+
+	// Opens the 160px rendition as MediaController does and releases it, so
+	// the returned file is left to eviction
+	private static Path serveOnce(RenditionService service, String fileName) throws IOException {
+		try (RenditionService.Lease lease = service.openRendition(fileName, 160)) {
+			return lease.path();
+		}
+	}
+
+	private void start(long maxBytes) {
+		renditions = service(uploadDir, maxBytes);
+	}
+
+	private static RenditionService service(Path dir, long maxBytes) {
+		RenditionService service = new RenditionService();
+		ReflectionTestUtils.setField(service, "meterRegistry", new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(service, "uploadDir", dir.toString());
+		ReflectionTestUtils.setField(service, "maxBytes", maxBytes);
+		return service;
+	}
+
+	// Noise so both renditions are the same size but do not compress away
+	private void writePng(String name) throws IOException {
+		BufferedImage image = new BufferedImage(400, 300, BufferedImage.TYPE_INT_RGB);
+		Random random = new Random(42);
+		for (int y = 0; y < image.getHeight(); y++) {
+			for (int x = 0; x < image.getWidth(); x++) {
+				image.setRGB(x, y, random.nextInt());
+			}
+		}
+		ImageIO.write(image, "png", uploadDir.resolve(name).toFile());
+	}
+}
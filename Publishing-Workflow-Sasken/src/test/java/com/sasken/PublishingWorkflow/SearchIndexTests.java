@@ -0,0 +1,178 @@
+package com.sasken.PublishingWorkflow;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.sasken.Model.BlogPost;
+import com.sasken.Model.DeflatedText;
+import com.sasken.Model.PostStatus;
+import com.sasken.Model.SearchHit;
+import com.sasken.Service.SearchIndexService;
+
+/**
+ * Ranking, status filtering and slot bookkeeping of the in-memory search
+ * index, and the startup scan racing live changes.
+ */
+class SearchIndexTests {
+
+	private SearchIndexService index;
+
+	private EmbeddedDatabase database;
+
+	@BeforeEach
+	void createIndex() {
+		index = new SearchIndexService();
+	}
+
+	@AfterEach
+	void shutDownDatabase() {
+		if (database != null) {
+			database.shutdown();
+		}
+	}
+
+	@Test
+	void ranksByRelevance() {
+		index.index(BlogPost.builder().id(1L).title("Notes").status(PostStatus.DRAFT)
+				.contentBody(DeflatedText.of("kotlin coroutines and kotlin flows with kotlin channels")).build());
+		index.index(BlogPost.builder().id(2L).title("Notes").status(PostStatus.DRAFT)
+				.contentBody(DeflatedText.of("a long post about many things where kotlin shows up only once among "
+						+ "databases queues caches indexes servers clients threads locks and schedulers"))
+				.build());
+		index.index(BlogPost.builder().id(3L).title("Notes").status(PostStatus.DRAFT)
+				.contentBody(DeflatedText.of("nothing relevant here")).build());
+
+		assertThat(ids(index.search("kotlin", null, null))).containsExactly(1L, 2L);
+	}
+
+	@Test
+	void postsMatchingMoreTermsRankHigher() {
+		index.index(BlogPost.builder().id(1L).title("Spring").status(PostStatus.DRAFT)
+				.contentBody(DeflatedText.of("dependency injection")).build());
+		index.index(BlogPost.builder().id(2L).title("Boot").status(PostStatus.DRAFT)
+				.contentBody(DeflatedText.of("auto configuration")).build());
+		index.index(BlogPost.builder().id(3L).title("Spring Boot").status(PostStatus.DRAFT)
+				.contentBody(DeflatedText.of("starters")).build());
+
+		assertThat(ids(index.search("spring boot", null, null)).get(0)).isEqualTo(3L);
+		assertThat(ids(index.search("spring boot", null, 1))).containsExactly(3L);
+	}
+
+	@Test
+	void filtersByStatus() {
+		BlogPost draft = BlogPost.builder().id(1L).title("Caching").status(PostStatus.DRAFT)
+				.contentBody(DeflatedText.of("caching strategies")).build();
+		BlogPost published = BlogPost.builder().id(2L).title("Caching").status(PostStatus.PUBLISHED)
+				.contentBody(DeflatedText.of("caching in practice")).build();
+		index.index(draft);
+		index.index(published);
+
+		assertThat(ids(index.search("caching", PostStatus.PUBLISHED, null))).containsExactly(2L);
+		assertThat(ids(index.search("caching", PostStatus.DRAFT, null))).containsExactly(1L);
+		assertThat(ids(index.search("caching", null, null))).containsExactlyInAnyOrder(1L, 2L);
+
+		index.updateStatus(1L, PostStatus.PUBLISHED);
+
+		assertThat(ids(index.search("caching", PostStatus.PUBLISHED, null))).containsExactlyInAnyOrder(1L, 2L);
+		assertThat(index.search("caching", PostStatus.DRAFT, null)).isEmpty();
+		assertThat(index.search("caching", PostStatus.PUBLISHED, null))
+				.allMatch(hit -> hit.getStatus() == PostStatus.PUBLISHED);
+	}
+
+	@Test
+	void reindexedPostSurvivesCompaction() {
+		index.index(BlogPost.builder().id(1L).title("Original").status(PostStatus.DRAFT)
+				.contentBody(DeflatedText.of("alpha")).build());
+		index.index(BlogPost.builder().id(1L).title("Renamed").status(PostStatus.DRAFT)
+				.contentBody(DeflatedText.of("alpha beta")).build());
+		// Re-index another post until the dead slots are compacted away
+		int churn = 2000;
+		for (int i = 0; i < churn; i++) {
+			index.index(BlogPost.builder().id(2L).title("Filler").status(PostStatus.DRAFT)
+					.contentBody(DeflatedText.of("filler " + i)).build());
+		}
+		assertThat((int) ReflectionTestUtils.getField(index, "slotCount")).isLessThan(churn);
+
+		List<SearchHit> hits = index.search("beta", null, null);
+		assertThat(ids(hits)).containsExactly(1L);
+		assertThat(hits.get(0).getTitle()).isEqualTo("Renamed");
+		assertThat(ids(index.search("alpha", null, null))).containsExactly(1L);
+		assertThat(index.search("original", null, null)).isEmpty();
+		assertThat(ids(index.search("filler", null, null))).containsExactly(2L);
+		assertThat(ids(index.search("1999", null, null))).containsExactly(2L);
+		assertThat(index.search("1998", null, null)).isEmpty();
+		assertThat(index.size()).isEqualTo(2);
+	}
+
+	@Test
+	void startupScanKeepsChangesMadeWhileItRuns() {
+		database = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+		ScanRacingJdbcTemplate jdbcTemplate = new ScanRacingJdbcTemplate(database);
+		jdbcTemplate.execute("CREATE TABLE blog_post (id BIGINT PRIMARY KEY, title VARCHAR(255),"
+				+ " content_deflated BLOB, status VARCHAR(20))");
+		insert(jdbcTemplate, 1, "Deleted", "obsolete words");
+		insert(jdbcTemplate, 2, "Before", "stale words");
+		insert(jdbcTemplate, 3, "Untouched", "steady words");
+		ReflectionTestUtils.setField(index, "jdbcTemplate", jdbcTemplate);
+
+		// The scan has read its batch when the post is deleted and the other
+		// edited, so it goes on to index the copies it read before
+		jdbcTemplate.duringScan = () -> {
+			jdbcTemplate.update("DELETE FROM blog_post WHERE id = 1");
+			index.remove(1L);
+			jdbcTemplate.update("UPDATE blog_post SET title = 'After', content_deflated = ? WHERE id = 2",
+					DeflatedText.of("fresh words").bytes());
+			index.index(BlogPost.builder().id(2L).title("After").status(PostStatus.DRAFT)
+					.contentBody(DeflatedText.of("fresh words")).build());
+		};
+		ReflectionTestUtils.invokeMethod(index, "scanAll");
+
+		assertThat(index.search("obsolete", null, null)).isEmpty();
+		assertThat(index.search("stale", null, null)).isEmpty();
+		assertThat(ids(index.search("fresh", null, null))).containsExactly(2L);
+		assertThat(index.search("fresh", null, null).get(0).getTitle()).isEqualTo("After");
+		assertThat(ids(index.search("steady", null, null))).containsExactly(3L);
+		assertThat(ids(index.search("words", null, null))).containsExactlyInAnyOrder(2L, 3L);
+	}
+
+	/** Runs {@code duringScan} once, right after the first batch of the startup scan is read. */
+	private static final class ScanRacingJdbcTemplate extends JdbcTemplate {
+
+		Runnable duringScan;
+
+		ScanRacingJdbcTemplate(EmbeddedDatabase database) {
+			super(database);
+		}
+
+		@Override
+		public <T> List<T> query(String sql, RowMapper<T> rowMapper, Object... args) {
+			List<T> rows = super.query(sql, rowMapper, args);
+			Runnable hook = duringScan;
+			if (hook != null && sql.contains("WHERE id > ?")) {
+				duringScan = null;
+				hook.run();
+			}
+			return rows;
+		}
+	}
+
+	private static void insert(JdbcTemplate jdbcTemplate, long id, String title, String content) {
+		jdbcTemplate.update("INSERT INTO blog_post (id, title, content_deflated, status) VALUES (?, ?, ?, 'DRAFT')",
+				id, title, DeflatedText.of(content).bytes());
+	}
+
+	private static List<Long> ids(List<SearchHit> hits) {
+		return hits.stream().map(SearchHit::getPostId).toList();
+	}
+}
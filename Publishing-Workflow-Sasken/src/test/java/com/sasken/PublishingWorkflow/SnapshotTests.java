@@ -0,0 +1,164 @@
+package com.sasken.PublishingWorkflow;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.sasken.Model.BlogPost;
+import com.sasken.Model.PostStatus;
+import com.sasken.Service.BlogPostService;
+import com.sasken.Service.ReviewCommentService;
+import com.sasken.Service.SnapshotService;
+import com.sasken.Service.SnapshotService.Snapshot;
+
+/**
+ * Snapshot reads are tagged by content, not only by version, and the files
+ * found on startup are checked against the posts table.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class SnapshotTests {
+
+	@TempDir
+	static Path snapshotDir;
+
+	@DynamicPropertySource
+	static void snapshotProperties(DynamicPropertyRegistry registry) {
+		registry.add("app.snapshot.dir", snapshotDir::toString);
+	}
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private BlogPostService blogPostService;
+
+	@Autowired
+	private ReviewCommentService commentService;
+
+	@Autowired
+	private SnapshotService snapshots;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void newCommentChangesEtagAtSameVersion() throws Exception {
+		BlogPost post = publish(BlogPost.builder().title("Snapshot").build());
+		String before = getPost(post.getId(), null, null).getResponse().getHeader(HttpHeaders.ETAG);
+
+		commentService.addComment(post.getId(), 2L, "Nice");
+
+		MvcResult after = getPost(post.getId(), null, before);
+		assertThat(after.getResponse().getStatus()).isEqualTo(200);
+		assertThat(after.getResponse().getHeader(HttpHeaders.ETAG)).isNotEqualTo(before);
+		assertThat(after.getResponse().getContentAsString()).contains("\"commentCount\":1");
+		assertThat(snapshots.find(post.getId()).version()).isEqualTo(post.getVersion());
+	}
+
+	@Test
+	void gzippedSnapshotHasItsOwnEtag() throws Exception {
+		BlogPost post = publish(BlogPost.builder().title("Snapshot").build());
+		String identity = getPost(post.getId(), null, null).getResponse().getHeader(HttpHeaders.ETAG);
+		MvcResult gzip = getPost(post.getId(), "gzip", identity);
+
+		assertThat(gzip.getResponse().getStatus()).isEqualTo(200);
+		assertThat(gzip.getResponse().getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+		String gzipTag = gzip.getResponse().getHeader(HttpHeaders.ETAG);
+		assertThat(gzipTag).isNotEqualTo(identity).endsWith("-gzip\"");
+
+		assertThat(getPost(post.getId(), "gzip", gzipTag).getResponse().getStatus()).isEqualTo(304);
+	}
+
+	@Test
+	void startupDropsSnapshotsThatNoLongerMatchTheDatabase() throws Exception {
+		BlogPost edited = publish(BlogPost.builder().title("Snapshot").build());
+		BlogPost unpublished = publish(BlogPost.builder().title("Snapshot").build());
+		BlogPost unchanged = publish(BlogPost.builder().title("Snapshot").build());
+		Snapshot unchangedSnapshot = snapshots.find(unchanged.getId());
+		Path orphan = snapshotDir.resolve("999999-1-0123456789abcdef.json");
+		Files.writeString(orphan, "{}");
+		jdbcTemplate.update("UPDATE blog_post SET version = version + 1, title = 'Edited' WHERE id = ?",
+				edited.getId());
+		jdbcTemplate.update("UPDATE blog_post SET status = 'DRAFT' WHERE id = ?", unpublished.getId());
+		Path unpublishedFile = snapshots.find(unpublished.getId()).json();
+
+		restart();
+
+		assertThat(snapshots.find(999999L)).isNull();
+		assertThat(orphan).doesNotExist();
+		assertThat(snapshots.find(unpublished.getId())).isNull();
+		assertThat(unpublishedFile).doesNotExist();
+		assertThat(snapshots.find(unchanged.getId())).isEqualTo(unchangedSnapshot);
+		Snapshot rebuilt = snapshots.find(edited.getId());
+		assertThat(rebuilt.version()).isEqualTo(edited.getVersion() + 1);
+		assertThat(Files.readString(rebuilt.json())).contains("\"title\":\"Edited\"");
+	}
+
+	@Test
+	void pageDropsScriptsFromRichContent() throws Exception {
+		BlogPost draft = BlogPost.builder().title("Snapshot").build();
+		draft.setRichContent("<p onclick=\"steal()\">Hello <b>reader</b></p><script>steal()</script>"
+				+ "<a href=\"javascript:steal()\">link</a>");
+		BlogPost post = publish(draft);
+
+		String page = mockMvc.perform(get("/api/posts/{postId}/page", post.getId())).andReturn()
+				.getResponse().getContentAsString();
+
+		assertThat(page).contains("Hello <b>reader</b>").doesNotContain("steal()").doesNotContain("<script");
+	}
+
+	@Test
+	void lateUpdateDoesNotBringBackDeletedPost() {
+		BlogPost post = publish(BlogPost.builder().title("Snapshot").build());
+		Path file = snapshots.find(post.getId()).json();
+
+		blogPostService.deletePost(post.getId());
+		// An edit that committed before the delete finishing after it
+		snapshots.update(post);
+
+		assertThat(snapshots.find(post.getId())).isNull();
+		assertThat(file).doesNotExist();
+	}
+
+	// Forgets the index and reads it back from disk as on startup
+	private void restart() {
+		((Map<?, ?>) ReflectionTestUtils.getField(snapshots, "snapshots")).clear();
+		ReflectionTestUtils.invokeMethod(snapshots, "loadIndex");
+	}
+
+	private MvcResult getPost(Long postId, String acceptEncoding, String ifNoneMatch) throws Exception {
+		var request = get("/api/posts/{postId}", postId);
+		if (acceptEncoding != null) {
+			request.header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+		}
+		if (ifNoneMatch != null) {
+			request.header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+		}
+		return mockMvc.perform(request).andReturn();
+	}
+
+	// Takes a new post through review and approval to PUBLISHED
+	private BlogPost publish(BlogPost post) {
+		Long postId = blogPostService.createDraft(post).getId();
+		blogPostService.changeStatus(postId, PostStatus.REVIEW, 1L);
+		blogPostService.changeStatus(postId, PostStatus.APPROVED, 1L);
+		return blogPostService.changeStatus(postId, PostStatus.PUBLISHED, 1L);
+	}
+}
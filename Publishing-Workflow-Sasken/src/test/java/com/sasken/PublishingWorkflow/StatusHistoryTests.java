@@ -0,0 +1,187 @@
+package com.sasken.PublishingWorkflow;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sasken.Model.PostStatus;
+import com.sasken.Model.PostStatusHistory;
+import com.sasken.Repository.PostStatusHistoryRepository;
+import com.sasken.Service.StatusHistoryService;
+
+/**
+ * Transitions still queued for the write-behind flush are listed alongside
+ * stored ones, each exactly once, even when several share a second. Rows
+ * the database refuses neither hold back the rest of their batch nor get
+ * lost at shutdown, are retried after a delay and stay listed while spilled.
+ */
+@SpringBootTest(properties = {"app.history.flush-interval=600000", "app.history.batch-size=1000"})
+@DirtiesContext
+class StatusHistoryTests {
+
+	private static final Long POST_ID = 4242L;
+
+	@Autowired
+	private StatusHistoryService historyService;
+
+	@Autowired
+	private PostStatusHistoryRepository historyRepo;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@TempDir
+	Path spillDir;
+
+	@Test
+	void listsEveryTransitionOnceBeforeAndAfterFlush() {
+		historyService.record(POST_ID, PostStatus.DRAFT, PostStatus.REVIEW, 7L);
+		historyService.record(POST_ID, PostStatus.DRAFT, PostStatus.REVIEW, 7L);
+		assertThat(historyService.getHistory(POST_ID)).hasSize(2);
+
+		// A stored row identical to the pending ones but for its identity
+		historyRepo.save(PostStatusHistory.builder()
+				.postId(POST_ID)
+				.oldStatus(PostStatus.DRAFT)
+				.newStatus(PostStatus.REVIEW)
+				.changedBy(7L)
+				.changedAt(LocalDateTime.now())
+				.build());
+		assertThat(historyService.getHistory(POST_ID)).hasSize(3);
+
+		// Shutting the writer down flushes the queue
+		ReflectionTestUtils.invokeMethod(historyService, "stop");
+		assertThat(historyRepo.findByPostId(POST_ID)).hasSize(3);
+		assertThat(historyService.getHistory(POST_ID)).hasSize(3);
+	}
+
+	@Test
+	void badRowDoesNotHoldBackItsBatch() throws IOException {
+		long postId = 4343L;
+		jdbcTemplate.execute("ALTER TABLE post_status_history ADD CONSTRAINT no_negative_user CHECK (changed_by >= 0)");
+		try {
+			StatusHistoryService writer = startWriter();
+			writer.record(postId, PostStatus.DRAFT, PostStatus.REVIEW, 7L);
+			writer.record(postId, PostStatus.REVIEW, PostStatus.APPROVED, -1L);
+			writer.record(postId, PostStatus.APPROVED, PostStatus.PUBLISHED, 7L);
+			ReflectionTestUtils.invokeMethod(writer, "stop");
+		} finally {
+			jdbcTemplate.execute("ALTER TABLE post_status_history DROP CONSTRAINT no_negative_user");
+		}
+
+		assertThat(historyRepo.findByPostId(postId))
+				.extracting(PostStatusHistory::getNewStatus)
+				.containsExactlyInAnyOrder(PostStatus.REVIEW, PostStatus.PUBLISHED);
+		List<String> spilled = Files.readAllLines(spillFile());
+		assertThat(spilled).hasSize(1);
+		assertThat(spilled.get(0)).contains("\tAPPROVED\t-1\t");
+	}
+
+	@Test
+	void spillsUnwrittenEntriesAtShutdownAndWritesThemOnStart() throws IOException {
+		long postId = 4444L;
+		jdbcTemplate.execute("ALTER TABLE post_status_history ADD CONSTRAINT no_post_4444 CHECK (post_id <> 4444)");
+		try {
+			StatusHistoryService writer = startWriter();
+			writer.record(postId, PostStatus.DRAFT, PostStatus.REVIEW, 7L);
+			writer.record(postId, PostStatus.REVIEW, PostStatus.APPROVED, 8L);
+			ReflectionTestUtils.invokeMethod(writer, "stop");
+			assertThat(writer.getHistory(postId)).hasSize(2);
+		} finally {
+			jdbcTemplate.execute("ALTER TABLE post_status_history DROP CONSTRAINT no_post_4444");
+		}
+		assertThat(historyRepo.findByPostId(postId)).isEmpty();
+		List<String> spilled = Files.readAllLines(spillFile());
+		assertThat(spilled).hasSize(2);
+
+		ReflectionTestUtils.invokeMethod(startWriter(), "stop");
+		assertThat(historyRepo.findByPostId(postId)).hasSize(2);
+		assertThat(spillFile()).doesNotExist();
+
+		// Replaying a file whose entries are already stored adds nothing
+		Files.write(spillFile(), spilled);
+		ReflectionTestUtils.invokeMethod(startWriter(), "stop");
+		assertThat(historyRepo.findByPostId(postId)).hasSize(2);
+		assertThat(spillFile()).doesNotExist();
+		// and the unique entry ID refuses a second copy outright
+		String entryId = historyRepo.findByPostId(postId).get(0).getEntryId();
+		assertThatThrownBy(() -> jdbcTemplate.update(
+				"INSERT INTO post_status_history (post_id, entry_id) VALUES (?, ?)", postId, entryId))
+				.isInstanceOf(DuplicateKeyException.class);
+	}
+
+	@Test
+	void retriesFailedEntryAfterDelay() throws InterruptedException {
+		long postId = 4545L;
+		jdbcTemplate.execute("ALTER TABLE post_status_history ADD CONSTRAINT no_post_4545 CHECK (post_id <> 4545)");
+		StatusHistoryService writer;
+		try {
+			writer = startWriter(20L);
+			writer.record(postId, PostStatus.DRAFT, PostStatus.REVIEW, 7L);
+			Map<?, ?> attempts = (Map<?, ?>) ReflectionTestUtils.getField(writer, "attempts");
+			awaitTrue(() -> !attempts.isEmpty());
+			// Failed once and waiting out its delay, not spilled
+			assertThat(spillFile()).doesNotExist();
+			assertThat(writer.getHistory(postId)).hasSize(1);
+		} finally {
+			jdbcTemplate.execute("ALTER TABLE post_status_history DROP CONSTRAINT no_post_4545");
+		}
+
+		awaitTrue(() -> !historyRepo.findByPostId(postId).isEmpty());
+		ReflectionTestUtils.invokeMethod(writer, "stop");
+		assertThat(historyRepo.findByPostId(postId)).hasSize(1);
+		assertThat(spillFile()).doesNotExist();
+	}
+
+	private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (!condition.getAsBoolean()) {
+			assertThat(System.nanoTime()).isLessThan(deadline);
+			Thread.sleep(10);
+		}
+	}
+
+	private StatusHistoryService startWriter() {
+		return startWriter(600000L);
+	}
+
+	private StatusHistoryService startWriter(long flushIntervalMillis) {
+		StatusHistoryService writer = new StatusHistoryService();
+		ReflectionTestUtils.setField(writer, "historyRepo", historyRepo);
+		ReflectionTestUtils.setField(writer, "jdbcTemplate", jdbcTemplate);
+		ReflectionTestUtils.setField(writer, "transactionTemplate", transactionTemplate);
+		ReflectionTestUtils.setField(writer, "batchSize", 100);
+		ReflectionTestUtils.setField(writer, "flushIntervalMillis", flushIntervalMillis);
+		ReflectionTestUtils.setField(writer, "queueCapacity", 100);
+		ReflectionTestUtils.setField(writer, "retryDelayMillis", 500L);
+		ReflectionTestUtils.setField(writer, "spillFile", spillFile().toString());
+		ReflectionTestUtils.setField(writer, "replayIntervalMillis", 600000L);
+		ReflectionTestUtils.invokeMethod(writer, "start");
+		return writer;
+	}
+
+	private Path spillFile() {
+		return spillDir.resolve("history.spill");
+	}
+}
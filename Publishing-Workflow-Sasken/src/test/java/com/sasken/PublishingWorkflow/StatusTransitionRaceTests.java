@@ -0,0 +1,187 @@
+package com.sasken.PublishingWorkflow;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.sasken.Model.BlogPost;
+import com.sasken.Model.PostStatus;
+import com.sasken.Model.StatusChangeRequest;
+import com.sasken.Model.StatusChangeResult;
+import com.sasken.Repository.BlogPostRepository;
+import com.sasken.Service.BlogPostService;
+
+import jakarta.persistence.EntityNotFoundException;
+
+/**
+ * Concurrent requests to move one post out of the same status, singly or in
+ * batches: exactly one applies, the rest are rejected as invalid transitions.
+ */
+@SpringBootTest
+class StatusTransitionRaceTests {
+
+	private static final int THREADS = 8;
+
+	@Autowired
+	private BlogPostService blogPostService;
+
+	@Autowired
+	private BlogPostRepository blogPostRepo;
+
+	@Test
+	void exactlyOneConcurrentTransitionWins() throws Exception {
+		for (int round = 0; round < 20; round++) {
+			BlogPost post = blogPostService.createDraft(BlogPost.builder().title("Contended post").build());
+			List<Boolean> outcomes = race(post.getId(), PostStatus.REVIEW);
+
+			assertThat(outcomes).containsOnlyOnce(true);
+			assertThat(blogPostRepo.findStatusById(post.getId())).contains(PostStatus.REVIEW);
+		}
+	}
+
+	@Test
+	void concurrentReturnsToReviewFromApprovedHaveOneWinner() throws Exception {
+		for (int round = 0; round < 20; round++) {
+			BlogPost post = blogPostService.createDraft(BlogPost.builder().title("Contended post").build());
+			blogPostService.changeStatus(post.getId(), PostStatus.REVIEW, 1L);
+			blogPostService.changeStatus(post.getId(), PostStatus.APPROVED, 1L);
+			List<Boolean> outcomes = race(post.getId(), PostStatus.REVIEW);
+
+			assertThat(outcomes).containsOnlyOnce(true);
+			assertThat(blogPostRepo.findStatusById(post.getId())).contains(PostStatus.REVIEW);
+		}
+	}
+
+	@Test
+	void invalidTransitionNamesCurrentStatus() {
+		BlogPost post = blogPostService.createDraft(BlogPost.builder().title("Contended post").build());
+
+		assertThatThrownBy(() -> blogPostService.changeStatus(post.getId(), PostStatus.PUBLISHED, 1L))
+				.isInstanceOf(IllegalStateException.class)
+				.hasMessage("Invalid status transition from DRAFT to PUBLISHED");
+		blogPostService.changeStatus(post.getId(), PostStatus.REVIEW, 1L);
+		assertThatThrownBy(() -> blogPostService.changeStatus(post.getId(), PostStatus.REVIEW, 1L))
+				.isInstanceOf(IllegalStateException.class)
+				.hasMessage("Invalid status transition from REVIEW to REVIEW");
+		assertThatThrownBy(() -> blogPostService.changeStatus(-1L, PostStatus.REVIEW, 1L))
+				.isInstanceOf(EntityNotFoundException.class);
+	}
+
+	@Test
+	void competingTargetsLeaveOneWinner() throws Exception {
+		for (int round = 0; round < 20; round++) {
+			BlogPost post = blogPostService.createDraft(BlogPost.builder().title("Contended post").build());
+			blogPostService.changeStatus(post.getId(), PostStatus.REVIEW, 1L);
+			// From REVIEW a post may be approved or sent back, but not both
+			List<Boolean> outcomes = race(post.getId(), PostStatus.APPROVED, PostStatus.DRAFT);
+
+			assertThat(outcomes).containsOnlyOnce(true);
+			assertThat(blogPostRepo.findStatusById(post.getId()))
+					.hasValueSatisfying(status -> assertThat(status).isIn(PostStatus.APPROVED, PostStatus.DRAFT));
+		}
+	}
+
+	@Test
+	void batchReportsEachItemOnItsOwn() {
+		BlogPost chained = blogPostService.createDraft(BlogPost.builder().title("Contended post").build());
+		BlogPost invalid = blogPostService.createDraft(BlogPost.builder().title("Contended post").build());
+		List<StatusChangeResult> results = blogPostService.changeStatuses(List.of(
+				change(chained.getId(), PostStatus.REVIEW),
+				change(chained.getId(), PostStatus.APPROVED),
+				change(invalid.getId(), PostStatus.PUBLISHED),
+				change(Long.MAX_VALUE, PostStatus.REVIEW)), 1L);
+
+		assertThat(results).extracting(StatusChangeResult::isSuccess).containsExactly(true, true, false, false);
+		assertThat(results.get(1).getPreviousStatus()).isEqualTo(PostStatus.REVIEW);
+		assertThat(results.get(2).getError()).isEqualTo("Invalid status transition from DRAFT to PUBLISHED");
+		assertThat(results.get(3).getError()).isEqualTo("Post not found");
+		assertThat(blogPostRepo.findStatusById(chained.getId())).contains(PostStatus.APPROVED);
+		assertThat(blogPostRepo.findStatusById(invalid.getId())).contains(PostStatus.DRAFT);
+	}
+
+	@Test
+	void concurrentBatchesApplyEachTransitionOnce() throws Exception {
+		List<StatusChangeRequest> batch = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			BlogPost post = blogPostService.createDraft(BlogPost.builder().title("Contended post").build());
+			batch.add(change(post.getId(), PostStatus.REVIEW));
+		}
+
+		ExecutorService pool = Executors.newFixedThreadPool(4);
+		try {
+			CountDownLatch start = new CountDownLatch(1);
+			List<Future<List<StatusChangeResult>>> futures = new ArrayList<>();
+			for (int i = 0; i < 4; i++) {
+				futures.add(pool.submit(() -> {
+					start.await();
+					return blogPostService.changeStatuses(batch, 1L);
+				}));
+			}
+			start.countDown();
+			List<StatusChangeResult> all = new ArrayList<>();
+			for (Future<List<StatusChangeResult>> future : futures) {
+				all.addAll(future.get(30, TimeUnit.SECONDS));
+			}
+
+			for (StatusChangeRequest change : batch) {
+				List<StatusChangeResult> forPost = all.stream()
+						.filter(result -> result.getPostId().equals(change.getPostId()))
+						.toList();
+				assertThat(forPost).filteredOn(StatusChangeResult::isSuccess).hasSize(1);
+				assertThat(forPost).filteredOn(result -> !result.isSuccess())
+						.extracting(StatusChangeResult::getError)
+						.containsOnly("Invalid status transition from REVIEW to REVIEW");
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	private static StatusChangeRequest change(Long postId, PostStatus status) {
+		StatusChangeRequest change = new StatusChangeRequest();
+		change.setPostId(postId);
+		change.setStatus(status);
+		return change;
+	}
+
+	// Starts THREADS changeStatus calls at once, cycling through targets;
+	// true for each call that applied, false for each rejected one
+	private List<Boolean> race(Long postId, PostStatus... targets) throws Exception {
+		ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+		try {
+			CountDownLatch start = new CountDownLatch(1);
+			List<Future<Boolean>> futures = new ArrayList<>();
+			for (int i = 0; i < THREADS; i++) {
+				PostStatus target = targets[i % targets.length];
+				futures.add(pool.submit(() -> {
+					start.await();
+					try {
+						blogPostService.changeStatus(postId, target, 1L);
+						return true;
+					} catch (IllegalStateException e) {
+						return false;
+					}
+				}));
+			}
+			start.countDown();
+			List<Boolean> outcomes = new ArrayList<>();
+			for (Future<Boolean> future : futures) {
+				outcomes.add(future.get(30, TimeUnit.SECONDS));
+			}
+			return outcomes;
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+}